@@ -0,0 +1,62 @@
+package com.mnour.jfxmaze;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Recursive backtracker (randomized depth-first search), run iteratively on an explicit stack.
+ * <p>
+ * Produces long, winding corridors with few branches.
+ */
+public class BacktrackerMazeGenerator implements MazeGenerator {
+
+    @Override
+    public String getName() {
+        return "Recursive Backtracker";
+    }
+
+    @Override
+    public ConnectivityCertificate generate(MazeGrid maze, RandomGenerator random) {
+        int roomRows = maze.getRoomRows();
+        int roomCols = maze.getRoomCols();
+        int roomCount = maze.getRoomCount();
+
+        long[] visited = new long[(roomCount + 63) >>> 6];
+        int[] stack = new int[roomCount];
+        int[] neighbors = new int[4];
+
+        long joins = 0;
+        int top = 0;
+        stack[top++] = 0;
+        visited[0] |= 1L;
+        maze.setAt(maze.roomToCell(0), MazeGrid.PATH);
+
+        while (top > 0) {
+            int room = stack[top - 1];
+            int rr = room / roomCols;
+            int rc = room % roomCols;
+
+            int neighborCount = 0;
+            if (rr > 0 && !isSet(visited, room - roomCols)) neighbors[neighborCount++] = room - roomCols;
+            if (rr + 1 < roomRows && !isSet(visited, room + roomCols)) neighbors[neighborCount++] = room + roomCols;
+            if (rc > 0 && !isSet(visited, room - 1)) neighbors[neighborCount++] = room - 1;
+            if (rc + 1 < roomCols && !isSet(visited, room + 1)) neighbors[neighborCount++] = room + 1;
+
+            if (neighborCount == 0) {
+                // Dead end: backtrack
+                top--;
+                continue;
+            }
+
+            int next = neighbors[random.nextInt(neighborCount)];
+            visited[next >>> 6] |= 1L << next;
+            maze.openPassage(room, next);
+            joins++;
+            stack[top++] = next;
+        }
+        return new ConnectivityCertificate(roomCount, joins);
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+}
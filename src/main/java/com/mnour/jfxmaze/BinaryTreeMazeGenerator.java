@@ -0,0 +1,37 @@
+package com.mnour.jfxmaze;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Binary-tree algorithm: every room opens either north or west.
+ * <p>
+ * Needs no bookkeeping and is the fastest generator, but leaves a strong diagonal bias and
+ * open corridors along the top row and left column.
+ */
+public class BinaryTreeMazeGenerator implements MazeGenerator {
+
+    @Override
+    public String getName() {
+        return "Binary Tree";
+    }
+
+    @Override
+    public ConnectivityCertificate generate(MazeGrid maze, RandomGenerator random) {
+        int roomCols = maze.getRoomCols();
+        int roomCount = maze.getRoomCount();
+
+        maze.setAt(maze.roomToCell(0), MazeGrid.PATH);
+        for (int room = 1; room < roomCount; room++) {
+            boolean canGoNorth = room >= roomCols;
+            boolean canGoWest = room % roomCols > 0;
+
+            if (canGoNorth && (!canGoWest || random.nextBoolean())) {
+                maze.openPassage(room, room - roomCols);
+            } else {
+                maze.openPassage(room, room - 1);
+            }
+        }
+        // Every room but the first links to exactly one earlier room, so each passage is a tree edge
+        return new ConnectivityCertificate(roomCount, roomCount - 1L);
+    }
+}
@@ -0,0 +1,177 @@
+package com.mnour.jfxmaze;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a {@link MazeBot} as player 2 on a thread of its own.
+ * <p>
+ * The bot thread ticks at the skill's move rate. Each tick hands one planned move to the game
+ * through a lock-free queue and then tops up a short plan of upcoming moves, stopping when the
+ * tick's time budget runs out, so a slow plan delays the bot rather than a frame. The game
+ * applies the queued moves on the JavaFX thread with the same {@code movePlayer} call the
+ * keyboard uses. Searching the maze for the plan happens in the first tick, on the bot thread.
+ */
+public final class BotOpponent {
+    /**
+     * How well a bot plays: how fast it moves and how often it takes a wrong step.
+     */
+    public enum Skill {
+        EASY("Easy", 3, 0.15),
+        NORMAL("Normal", 5, 0.05),
+        HARD("Hard", 8, 0.0);
+
+        private final String displayName;
+        private final int movesPerSecond;
+        private final double errorRate;
+
+        Skill(String displayName, int movesPerSecond, double errorRate) {
+            this.displayName = displayName;
+            this.movesPerSecond = movesPerSecond;
+            this.errorRate = errorRate;
+        }
+
+        public String getDisplayName() { return displayName; }
+        public int getMovesPerSecond() { return movesPerSecond; }
+        public double getErrorRate() { return errorRate; }
+
+        /**
+         * Looks up a skill by its display name.
+         *
+         * @param name The display name
+         * @return The skill, or null if the name is not a skill
+         */
+        public static Skill forName(String name) {
+            for (Skill skill : values()) {
+                if (skill.displayName.equals(name)) {
+                    return skill;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Planning time allowed per tick, well under the time between moves of the fastest skill
+    private static final long TICK_BUDGET_NANOS = 2_000_000;
+    private static final int PLAN_AHEAD = 16;
+
+    private final MazeModel model;
+    private final MazeBot.Strategy strategy;
+    private final Skill skill;
+    private final long seed;
+    private final Queue<Integer> moves = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService clock = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "maze-bot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean stopped;
+
+    // Only touched on the bot thread
+    private MazeBot bot;
+    private final int[] plan = new int[PLAN_AHEAD];
+    private int planStart = 0;
+    private int planSize = 0;
+    private boolean planFinished = false;
+
+    /**
+     * Creates a bot opponent for a dual-player game; it does not move until {@link #start} is called.
+     *
+     * @param model The single-floor dual-player maze
+     * @param strategy The way the bot finds the exit
+     * @param skill How fast and how accurately the bot moves
+     * @param seed The seed for the bot's random choices
+     */
+    public BotOpponent(MazeModel model, MazeBot.Strategy strategy, Skill skill, long seed) {
+        this.model = model;
+        this.strategy = strategy;
+        this.skill = skill;
+        this.seed = seed;
+    }
+
+    /**
+     * Starts the bot thread.
+     *
+     * @param onMoveQueued Called on the bot thread after each move is queued, to have the game
+     *                     collect it with {@link #pollMove}
+     */
+    public void start(Runnable onMoveQueued) {
+        long period = TimeUnit.SECONDS.toNanos(1) / skill.getMovesPerSecond();
+        clock.scheduleAtFixedRate(() -> {
+            try {
+                tick(onMoveQueued);
+            } catch (RuntimeException e) {
+                System.err.println("Bot stopped: " + e.getMessage());
+                stop();
+            }
+        }, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    private void tick(Runnable onMoveQueued) {
+        if (stopped) return;
+        if (bot == null) {
+            bot = MazeBot.forPlayer(model, 2, strategy, skill.getErrorRate(), seed);
+            return;
+        }
+
+        if (planSize > 0) {
+            moves.offer(plan[planStart]);
+            planStart = (planStart + 1) % PLAN_AHEAD;
+            planSize--;
+            onMoveQueued.run();
+        }
+
+        long deadline = System.nanoTime() + TICK_BUDGET_NANOS;
+        while (!planFinished && planSize < PLAN_AHEAD && System.nanoTime() < deadline) {
+            int move = bot.nextMove();
+            if (move < 0) {
+                planFinished = true;
+            } else {
+                plan[(planStart + planSize) % PLAN_AHEAD] = move;
+                planSize++;
+            }
+        }
+    }
+
+    /**
+     * Takes the oldest queued move; call on the JavaFX thread.
+     *
+     * @return The move direction, for {@link MazeBot#dx} and {@link MazeBot#dy}, or -1 if none is queued
+     */
+    public int pollMove() {
+        Integer move = moves.poll();
+        return move != null ? move : -1;
+    }
+
+    /**
+     * Stops the bot thread. Moves already queued stay in the queue.
+     */
+    public void stop() {
+        stopped = true;
+        clock.shutdownNow();
+    }
+
+    /**
+     * Stops the bot thread and waits for a tick that is already running to finish, after which
+     * the bot no longer reads the maze. Must not be called on the bot thread.
+     *
+     * @param timeoutMillis The longest time to wait, in milliseconds
+     * @return Whether the bot thread finished in time
+     */
+    public boolean stopAndWait(long timeoutMillis) {
+        stop();
+        try {
+            return clock.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Getters
+    public MazeBot.Strategy getStrategy() { return strategy; }
+    public Skill getSkill() { return skill; }
+}
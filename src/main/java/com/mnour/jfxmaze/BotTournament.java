@@ -0,0 +1,171 @@
+package com.mnour.jfxmaze;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Command-line runner that plays many complete bot-against-bot games without a JavaFX stage.
+ * <p>
+ * Run with {@code java -cp target/classes com.mnour.jfxmaze.BotTournament [games] [mazeSize] [output.csv|-] [algorithm]}.
+ * Game {@code i} is a dual-player match on a single-floor maze whose seed is derived from
+ * {@code i}, between the {@code i}-th pairing of {@link MazeBot.Strategy strategies} (every
+ * ordered pair in turn), carved by the given algorithm or by every registered one in turn. The
+ * two bots take turns moving through {@link MazeModel#movePlayer} until one reaches the exit.
+ * <p>
+ * Games run in parallel on the common fork/join pool, whose workers steal games from each other.
+ * Each finished game is written as one CSV line straight away and folded into per-pairing
+ * counters, and its model is released, so nothing of a game outlives its line. A table of the
+ * counters and the games per minute is printed at the end.
+ */
+public class BotTournament {
+    private static final int DEFAULT_GAMES = 10_000;
+    private static final String CSV_HEADER = "game,seed,algorithm,size,p1_strategy,p2_strategy,winner,"
+            + "p1_moves,p2_moves,p1_score,p2_score,shortest_path,difficulty,micros";
+    // Moves per player allowed per open cell before a game is called a draw
+    private static final int MOVE_LIMIT_PER_CELL = 4;
+
+    // Per pairing counters: games, p1 wins, p2 wins, winner's moves
+    private static final int GAMES = 0;
+    private static final int P1_WINS = 1;
+    private static final int P2_WINS = 2;
+    private static final int WINNER_MOVES = 3;
+    private static final int COUNTERS = 4;
+
+    /**
+     * Runs the tournament.
+     *
+     * @param args Optional game count, maze size, CSV file ({@code -} for standard output) and algorithm name
+     */
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+        int mazeSize = args.length > 1 ? Integer.parseInt(args[1]) : MazeModel.DEFAULT_SIZE;
+        String output = args.length > 2 ? args[2] : "tournament.csv";
+        MazeGenerator named = args.length > 3 ? generatorNamed(args[3]) : null;
+        if (args.length > 3 && named == null) {
+            System.err.println("Unknown algorithm: " + args[3]);
+            System.err.println("Usage: BotTournament [games] [mazeSize] [output.csv|-] [algorithm]");
+            System.err.println("Algorithms: " + MazeGenerators.getAll().stream().map(MazeGenerator::getName).toList());
+            System.exit(2);
+        }
+        List<MazeGenerator> generators = named != null ? List.of(named) : MazeGenerators.getAll();
+
+        MazeBot.Strategy[] strategies = MazeBot.Strategy.values();
+        int pairings = strategies.length * strategies.length;
+        AtomicLongArray counters = new AtomicLongArray(pairings * COUNTERS);
+
+        long start = System.nanoTime();
+        try (PrintWriter csv = output.equals("-")
+                ? new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)))
+                : new PrintWriter(Files.newBufferedWriter(Path.of(output)))) {
+            csv.println(CSV_HEADER);
+            IntStream.range(0, games).parallel().forEach(game -> {
+                int pairing = game % pairings;
+                MazeGenerator generator = generators.get(game / pairings % generators.size());
+                String line = play(game, mazeSize, generator, strategies[pairing / strategies.length],
+                        strategies[pairing % strategies.length], counters, pairing);
+                synchronized (csv) {
+                    csv.println(line);
+                }
+            });
+            if (csv.checkError()) {
+                throw new UncheckedIOException(new IOException("Could not write " + output));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.err.printf("%-32s %8s %8s %8s %12s%n", "Pairing (P1 vs P2)", "Games", "P1 wins", "P2 wins", "Avg moves");
+        for (int pairing = 0; pairing < pairings; pairing++) {
+            long played = counters.get(pairing * COUNTERS + GAMES);
+            if (played == 0) continue;
+            long wins = counters.get(pairing * COUNTERS + P1_WINS) + counters.get(pairing * COUNTERS + P2_WINS);
+            System.err.printf("%-32s %8d %8d %8d %12.1f%n",
+                    strategies[pairing / strategies.length].getDisplayName() + " vs "
+                            + strategies[pairing % strategies.length].getDisplayName(),
+                    played, counters.get(pairing * COUNTERS + P1_WINS), counters.get(pairing * COUNTERS + P2_WINS),
+                    wins > 0 ? (double) counters.get(pairing * COUNTERS + WINNER_MOVES) / wins : 0.0);
+        }
+        System.err.printf("%d games of %dx%d in %.1f s: %.0f games per minute on %d threads%n", games, mazeSize, mazeSize,
+                elapsed / 1e9, games / (elapsed / 6e10), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Looks up the generator named on the command line. Unlike {@link MazeGenerators#forName},
+     * which falls back to the default for seeds recorded by older versions, an unknown name is
+     * not replaced, so a typo cannot quietly run the wrong algorithm.
+     *
+     * @param name The generator's display name
+     * @return The generator, or null if no generator has that name
+     */
+    private static MazeGenerator generatorNamed(String name) {
+        for (MazeGenerator generator : MazeGenerators.getAll()) {
+            if (generator.getName().equals(name)) {
+                return generator;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Plays one game and counts its result.
+     *
+     * @return The game's CSV line
+     */
+    private static String play(int game, int mazeSize, MazeGenerator generator, MazeBot.Strategy p1Strategy,
+                               MazeBot.Strategy p2Strategy, AtomicLongArray counters, int pairing) {
+        long gameStart = System.nanoTime();
+        // Seeds depend only on the game number, so a run can be repeated whatever the thread count
+        SplittableRandom random = new SplittableRandom(game);
+        long seed = random.nextLong(1, Long.MAX_VALUE);
+        MazeModel model = new MazeModel(mazeSize, MazeModel.DUAL_PLAYER, seed, generator);
+        try {
+            MazeBot p1 = MazeBot.forPlayer(model, 1, p1Strategy, 0.0, random.nextLong());
+            MazeBot p2 = MazeBot.forPlayer(model, 2, p2Strategy, 0.0, random.nextLong());
+            MazeMetrics metrics = MazeMetrics.measure(model);
+            int moveLimit = MOVE_LIMIT_PER_CELL * metrics.getOpenCells();
+
+            boolean p1Done = false;
+            boolean p2Done = false;
+            while (model.getWinner() == 0 && !(p1Done && p2Done) && model.getPlayer1Moves() < moveLimit) {
+                p1Done = p1Done || !move(model, 1, p1.nextMove());
+                if (model.getWinner() != 0) break;
+                p2Done = p2Done || !move(model, 2, p2.nextMove());
+            }
+
+            int winner = model.getWinner();
+            int base = pairing * COUNTERS;
+            counters.incrementAndGet(base + GAMES);
+            if (winner == 1 || winner == 2) {
+                counters.incrementAndGet(base + (winner == 1 ? P1_WINS : P2_WINS));
+                counters.addAndGet(base + WINNER_MOVES, winner == 1 ? model.getPlayer1Moves() : model.getPlayer2Moves());
+            }
+            return String.format(Locale.ROOT, "%d,%d,%s,%d,%s,%s,%d,%d,%d,%d,%d,%d,%.4f,%d", game, seed, generator.getName(), mazeSize,
+                    p1Strategy.getDisplayName(), p2Strategy.getDisplayName(), winner,
+                    model.getPlayer1Moves(), model.getPlayer2Moves(), model.getPlayer1Score(), model.getPlayer2Score(),
+                    metrics.getSolutionLength(), metrics.getDifficultyScore(), (System.nanoTime() - gameStart) / 1000);
+        } finally {
+            model.release();
+        }
+    }
+
+    /**
+     * Applies one bot move to the model.
+     *
+     * @return false once the bot has no move left
+     */
+    private static boolean move(MazeModel model, int playerNum, int direction) {
+        if (direction < 0) return false;
+        model.movePlayer(playerNum, MazeBot.dx(direction), MazeBot.dy(direction));
+        return true;
+    }
+}
@@ -0,0 +1,38 @@
+package com.mnour.jfxmaze;
+
+/**
+ * Proof, collected while carving, that a maze connects all of its rooms.
+ * <p>
+ * Generators only count a join when it links a room to a part of the maze it was not yet
+ * connected to (a newly visited room, or two distinct union-find sets). Such joins never close
+ * a cycle, so the carved passages form a forest; a forest over {@code n} rooms with {@code n - 1}
+ * edges is a single spanning tree. Checking that takes O(1) instead of a search over the grid.
+ */
+public final class ConnectivityCertificate {
+    private final int roomCount;
+    private final long treeJoins;
+
+    /**
+     * Creates a certificate.
+     *
+     * @param roomCount The number of rooms in the maze
+     * @param treeJoins The number of passages that joined previously unconnected parts
+     */
+    public ConnectivityCertificate(int roomCount, long treeJoins) {
+        this.roomCount = roomCount;
+        this.treeJoins = treeJoins;
+    }
+
+    /**
+     * Checks whether the recorded joins form a spanning tree, i.e. every room reaches every other one.
+     *
+     * @return true if all rooms are connected
+     */
+    public boolean isSpanningTree() {
+        return roomCount > 0 && treeJoins == roomCount - 1L;
+    }
+
+    // Getters
+    public int getRoomCount() { return roomCount; }
+    public long getTreeJoins() { return treeJoins; }
+}
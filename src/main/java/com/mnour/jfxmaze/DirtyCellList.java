@@ -0,0 +1,63 @@
+package com.mnour.jfxmaze;
+
+/**
+ * A growable list of cells that changed since the screen last drew them.
+ * <p>
+ * Cells are flat grid indices and may appear more than once. The list stops growing at a fixed
+ * capacity and is then marked as overflowed, so a model that keeps changing without anything
+ * drawing it holds a bounded buffer, and the next draw repaints everything instead.
+ */
+public final class DirtyCellList {
+    private final int capacity;
+    private int[] cells = new int[16];
+    private int size = 0;
+    private boolean overflowed = false;
+
+    /**
+     * Creates an empty list.
+     *
+     * @param capacity The number of cells kept before the list gives up and asks for a full repaint
+     */
+    public DirtyCellList(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Records a changed cell.
+     *
+     * @param cell The flat cell index
+     */
+    public void add(int cell) {
+        if (overflowed) return;
+        if (size == capacity) {
+            overflowed = true;
+            return;
+        }
+        if (size == cells.length) {
+            int[] grown = new int[Math.min(capacity, cells.length * 2)];
+            System.arraycopy(cells, 0, grown, 0, size);
+            cells = grown;
+        }
+        cells[size++] = cell;
+    }
+
+    /**
+     * Asks for everything to be repainted, such as after a change that touches the whole view.
+     */
+    public void markAll() {
+        overflowed = true;
+    }
+
+    /**
+     * Forgets the recorded cells once they have been drawn.
+     */
+    public void clear() {
+        size = 0;
+        overflowed = false;
+    }
+
+    // Getters
+    public int size() { return size; }
+    public int get(int i) { return cells[i]; }
+    public boolean isOverflowed() { return overflowed; }
+}
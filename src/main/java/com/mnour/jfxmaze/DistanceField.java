@@ -0,0 +1,184 @@
+package com.mnour.jfxmaze;
+
+import java.util.Arrays;
+
+/**
+ * Walking distances from one source cell to every cell of a maze.
+ * <p>
+ * Built by a single breadth-first search over a flat {@code int[]} that is indexed the same way
+ * as {@link MazeGrid}, so once it exists the distance of any cell is one array read. Walls and
+ * cells that cannot be reached hold {@link #UNREACHABLE}. The field only depends on which cells
+ * are open, so picking up bonus dots or marking the exit does not invalidate it.
+ */
+public final class DistanceField {
+    public static final int UNREACHABLE = -1;
+
+    private final int cols;
+    private final int[] distances;
+    private final int farthestCell;
+    private final int maxDistance;
+    private final int reachableCount;
+
+    private DistanceField(int cols, int[] distances, int farthestCell, int maxDistance, int reachableCount) {
+        this.cols = cols;
+        this.distances = distances;
+        this.farthestCell = farthestCell;
+        this.maxDistance = maxDistance;
+        this.reachableCount = reachableCount;
+    }
+
+    /**
+     * Computes the distance of every cell from the given source cell.
+     *
+     * @param grid The maze
+     * @param row The source row
+     * @param col The source column
+     * @return The distance field
+     */
+    public static DistanceField compute(MazeGrid grid, int row, int col) {
+        return compute(grid, row, col, grid.getRows());
+    }
+
+    /**
+     * Computes the distance of every cell from the given source cell in a maze of stacked floors.
+     * Stepping onto a staircase carries a player to the cell at the same position on the next
+     * floor without another move, so the search reaches a staircase and its landing together, at
+     * the same distance, and distances stay the number of moves a player needs.
+     *
+     * @param grid The maze, with its floors stacked row-wise
+     * @param row The source row
+     * @param col The source column
+     * @param floorRows The number of rows per floor
+     * @return The distance field
+     */
+    public static DistanceField compute(MazeGrid grid, int row, int col, int floorRows) {
+        int rows = grid.getRows();
+        int cols = grid.getCols();
+        int floorCells = floorRows * cols;
+        int cellCount = grid.getCellCount();
+        int[] distances = new int[grid.getCellCount()];
+        Arrays.fill(distances, UNREACHABLE);
+
+        int source = grid.index(row, col);
+        if (!grid.isOpen(row, col)) {
+            return new DistanceField(cols, distances, source, 0, 0);
+        }
+
+        // Every cell enters the queue at most once, so a plain array serves as the queue.
+        // A landing is queued right behind its staircase, which keeps the queue in distance order.
+        int[] queue = new int[cellCount];
+        int head = 0;
+        int tail = enqueue(grid, source, 0, floorCells, distances, queue, 0);
+
+        while (head < tail) {
+            int cell = queue[head++];
+            int next = distances[cell] + 1;
+            int r = cell / cols;
+            int c = cell - r * cols;
+            if (r > 0 && distances[cell - cols] == UNREACHABLE && grid.getAt(cell - cols) != MazeGrid.WALL) {
+                tail = enqueue(grid, cell - cols, next, floorCells, distances, queue, tail);
+            }
+            if (r + 1 < rows && distances[cell + cols] == UNREACHABLE && grid.getAt(cell + cols) != MazeGrid.WALL) {
+                tail = enqueue(grid, cell + cols, next, floorCells, distances, queue, tail);
+            }
+            if (c > 0 && distances[cell - 1] == UNREACHABLE && grid.getAt(cell - 1) != MazeGrid.WALL) {
+                tail = enqueue(grid, cell - 1, next, floorCells, distances, queue, tail);
+            }
+            if (c + 1 < cols && distances[cell + 1] == UNREACHABLE && grid.getAt(cell + 1) != MazeGrid.WALL) {
+                tail = enqueue(grid, cell + 1, next, floorCells, distances, queue, tail);
+            }
+        }
+
+        // Breadth-first order dequeues the farthest cell last
+        int farthest = queue[tail - 1];
+        return new DistanceField(cols, distances, farthest, distances[farthest], tail);
+    }
+
+    /**
+     * Records the distance of a newly reached cell and queues it, along with the landing of a
+     * staircase, which the player reaches without another move.
+     *
+     * @return The new tail of the queue
+     */
+    private static int enqueue(MazeGrid grid, int cell, int distance, int floorCells, int[] distances, int[] queue, int tail) {
+        distances[cell] = distance;
+        queue[tail++] = cell;
+        int type = grid.getAt(cell);
+        int landing = type == MazeGrid.STAIRS_UP ? cell + floorCells : type == MazeGrid.STAIRS_DOWN ? cell - floorCells : -1;
+        if (landing >= 0 && landing < distances.length && distances[landing] == UNREACHABLE && grid.getAt(landing) != MazeGrid.WALL) {
+            distances[landing] = distance;
+            queue[tail++] = landing;
+        }
+        return tail;
+    }
+
+    /**
+     * Gets the distance of the cell at the given position.
+     *
+     * @param row The row
+     * @param col The column
+     * @return The number of steps from the source, or {@link #UNREACHABLE}
+     */
+    public int get(int row, int col) {
+        return distances[row * cols + col];
+    }
+
+    /**
+     * Gets the distance of the cell at the given flat index.
+     *
+     * @param index The flat index ({@code row * cols + col})
+     * @return The number of steps from the source, or {@link #UNREACHABLE}
+     */
+    public int getAt(int index) {
+        return distances[index];
+    }
+
+    /**
+     * Finds the next cell on a shortest way to the source: a neighbour one step closer, or else,
+     * on a staircase that was reached through its landing, the landing at the same distance.
+     * Walking these cells from any cell with a positive distance reaches a cell at distance 0.
+     *
+     * @param grid The maze the field was computed on
+     * @param cell The flat index of a reachable cell with a positive distance
+     * @param floorRows The number of rows per floor
+     * @return The flat index of the next cell
+     */
+    public int stepTowardSource(MazeGrid grid, int cell, int floorRows) {
+        int target = distances[cell] - 1;
+        // The border is always wall, so an open cell's neighbours are inside the grid
+        if (distances[cell - cols] == target) return cell - cols;
+        if (distances[cell + cols] == target) return cell + cols;
+        if (distances[cell - 1] == target) return cell - 1;
+        if (distances[cell + 1] == target) return cell + 1;
+        int floorCells = floorRows * cols;
+        return grid.getAt(cell) == MazeGrid.STAIRS_UP ? cell + floorCells : cell - floorCells;
+    }
+
+    /**
+     * Finds a cell for a target difficulty, given as a fraction of the longest distance.
+     * Of the cells at the target distance the one found last in row-major order is taken,
+     * which favours the bottom-right of the maze like the classic exit placement.
+     *
+     * @param difficulty A value from 0 to 1, where 1 picks the farthest cell
+     * @return The flat index of the chosen cell
+     */
+    public int findCellForDifficulty(double difficulty) {
+        if (difficulty >= 1.0 || maxDistance == 0) {
+            return farthestCell;
+        }
+        // Never put the target on the source itself
+        int target = Math.max(1, (int) Math.round(Math.max(0.0, difficulty) * maxDistance));
+        // Distances along a search are contiguous, so every value up to the maximum occurs
+        for (int index = distances.length - 1; index >= 0; index--) {
+            if (distances[index] == target) {
+                return index;
+            }
+        }
+        return farthestCell;
+    }
+
+    // Getters
+    public int getFarthestCell() { return farthestCell; }
+    public int getMaxDistance() { return maxDistance; }
+    public int getReachableCount() { return reachableCount; }
+}
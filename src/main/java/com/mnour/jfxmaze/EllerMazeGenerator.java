@@ -0,0 +1,166 @@
+package com.mnour.jfxmaze;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Eller's algorithm, which builds the maze one row at a time.
+ * <p>
+ * Only the set membership of the current row of rooms is kept, so {@link #generateRows}
+ * can stream a maze of any height to a {@link RowConsumer} in O(width) memory. The full grid
+ * never has to exist, which makes it suitable for writing huge mazes straight to a file or
+ * feeding a chunk store. Produces mazes with a slight horizontal bias.
+ */
+public class EllerMazeGenerator implements MazeGenerator {
+
+    /**
+     * Receives the generated maze one grid row at a time, from top to bottom.
+     */
+    @FunctionalInterface
+    public interface RowConsumer {
+        /**
+         * Accepts one row of cells.
+         *
+         * @param row The grid row index
+         * @param cells The {@link MazeGrid} cell types of the row; the buffer is reused for
+         *              later rows, so it must be copied if it is kept
+         */
+        void acceptRow(int row, byte[] cells);
+    }
+
+    @Override
+    public String getName() {
+        return "Eller";
+    }
+
+    @Override
+    public ConnectivityCertificate generate(MazeGrid maze, RandomGenerator random) {
+        return generateRows(maze.getRows(), maze.getCols(), random, (row, cells) -> {
+            for (int col = 0; col < cells.length; col++) {
+                if (cells[col] != MazeGrid.WALL) {
+                    maze.set(row, col, cells[col]);
+                }
+            }
+        });
+    }
+
+    /**
+     * Generates a perfect maze of the given dimensions and streams it row by row.
+     * <p>
+     * The layout matches the one {@link #generate} carves into a grid of the same size
+     * with the same random sequence.
+     *
+     * @param rows The number of grid rows, including the border
+     * @param cols The number of grid columns, including the border
+     * @param random The source of randomness
+     * @param consumer Receives every row from 0 to {@code rows - 1}
+     * @return The connectivity certificate collected while generating
+     */
+    public ConnectivityCertificate generateRows(int rows, int cols, RandomGenerator random, RowConsumer consumer) {
+        int roomRows = (rows - 1) / 2;
+        int roomCols = (cols - 1) / 2;
+
+        byte[] roomRow = new byte[cols];
+        byte[] wallRow = new byte[cols];
+
+        // Set ids live in 1..roomCols and are recycled once a set leaves the row
+        int[] sets = new int[roomCols];
+        int[] parent = new int[roomCols + 1];
+        int[] remaining = new int[roomCols + 1];
+        boolean[] dropped = new boolean[roomCols + 1];
+        boolean[] used = new boolean[roomCols + 1];
+        boolean[] drops = new boolean[roomCols];
+
+        // Horizontal joins only link distinct sets and every drop reaches a fresh room, so each is a tree edge
+        long joins = 0;
+
+        // Top border
+        consumer.acceptRow(0, wallRow);
+
+        for (int rr = 0; rr < roomRows; rr++) {
+            boolean lastRow = rr + 1 == roomRows;
+            assignFreshSets(sets, used);
+            for (int id = 1; id <= roomCols; id++) {
+                parent[id] = id;
+            }
+
+            // Horizontal joins; the last row joins every pair of distinct sets
+            Arrays.fill(roomRow, (byte) MazeGrid.WALL);
+            roomRow[1] = MazeGrid.PATH;
+            for (int rc = 0; rc + 1 < roomCols; rc++) {
+                roomRow[2 * rc + 3] = MazeGrid.PATH;
+                int a = find(parent, sets[rc]);
+                int b = find(parent, sets[rc + 1]);
+                if (a != b && (lastRow || random.nextBoolean())) {
+                    parent[b] = a;
+                    roomRow[2 * rc + 2] = MazeGrid.PATH;
+                    joins++;
+                }
+            }
+            for (int rc = 0; rc < roomCols; rc++) {
+                sets[rc] = find(parent, sets[rc]);
+            }
+            consumer.acceptRow(2 * rr + 1, roomRow);
+
+            if (lastRow) break;
+
+            // Vertical drops: random, but every set must continue into the next row at least once
+            Arrays.fill(remaining, 0);
+            Arrays.fill(dropped, false);
+            for (int rc = 0; rc < roomCols; rc++) {
+                remaining[sets[rc]]++;
+            }
+            Arrays.fill(wallRow, (byte) MazeGrid.WALL);
+            for (int rc = 0; rc < roomCols; rc++) {
+                int id = sets[rc];
+                remaining[id]--;
+                drops[rc] = random.nextBoolean() || (remaining[id] == 0 && !dropped[id]);
+                if (drops[rc]) {
+                    dropped[id] = true;
+                    wallRow[2 * rc + 1] = MazeGrid.PATH;
+                    joins++;
+                }
+            }
+            for (int rc = 0; rc < roomCols; rc++) {
+                if (!drops[rc]) sets[rc] = 0;
+            }
+            consumer.acceptRow(2 * rr + 2, wallRow);
+        }
+
+        // Bottom border, plus the spare wall row of even-sized grids
+        Arrays.fill(wallRow, (byte) MazeGrid.WALL);
+        for (int row = 2 * roomRows + 1; row < rows; row++) {
+            consumer.acceptRow(row, wallRow);
+        }
+        return new ConnectivityCertificate(roomRows * roomCols, joins);
+    }
+
+    /**
+     * Gives every room without a set a set id that is not in use in the row.
+     */
+    private static void assignFreshSets(int[] sets, boolean[] used) {
+        Arrays.fill(used, false);
+        for (int id : sets) {
+            used[id] = true;
+        }
+        int nextId = 1;
+        for (int rc = 0; rc < sets.length; rc++) {
+            if (sets[rc] == 0) {
+                while (used[nextId]) nextId++;
+                used[nextId] = true;
+                sets[rc] = nextId;
+            }
+        }
+    }
+
+    /**
+     * Finds the representative of a set id within the current row, halving the path on the way.
+     */
+    private static int find(int[] parent, int id) {
+        while (parent[id] != id) {
+            parent[id] = parent[parent[id]];
+            id = parent[id];
+        }
+        return id;
+    }
+}
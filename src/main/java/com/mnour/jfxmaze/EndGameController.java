@@ -8,6 +8,8 @@ import javafx.scene.layout.StackPane;
 import javafx.scene.text.Text;
 import javafx.stage.Stage;
 
+import java.util.Locale;
+
 /**
  * Controller for the end game screen FXML
  */
@@ -28,6 +30,7 @@ public class EndGameController {
     private int score;
     private int moves;
     private int elapsedTime;
+    private int parMoves;
     private int gameMode;
     private String username;
     private Image backgroundImage;
@@ -69,16 +72,18 @@ public class EndGameController {
      * @param score The score of the winner
      * @param moves The number of moves made by the winner
      * @param elapsedTime The elapsed time in seconds
+     * @param parMoves The fewest moves the winner's route could have taken, or -1 if unknown
      * @param gameController Reference to game controller
      * @param uiScreens Reference to UI screens
      * @param primaryStage Reference to primary stage
      */
-    public void setupEndGame(int winner, int score, int moves, int elapsedTime, int gameMode,
+    public void setupEndGame(int winner, int score, int moves, int elapsedTime, int parMoves, int gameMode,
                              GameController gameController, UIScreens uiScreens, Stage primaryStage, String username) {
         this.winner = winner;
         this.score = score;
         this.moves = moves;
         this.elapsedTime = elapsedTime;
+        this.parMoves = parMoves;
         this.gameMode = gameMode;
         this.gameController = gameController;
         this.uiScreens = uiScreens;
@@ -96,6 +101,11 @@ public class EndGameController {
                 outcomeMessage = (username != null && !username.isEmpty() ? username : "Anonymous Hero") + " Wins!";
                 statsText.setText("Time: " + elapsedTime + "s | Score: " + score + " | Moves: " + moves);
             }
+        } else if (winner == 2 && gameController.hasBotOpponent()) {
+            // The bot's result is not a score anyone can save
+            outcomeMessage = "The Bot Wins!";
+            statsText.setText("Bot Time: " + elapsedTime + "s | Score: " + score + " | Moves: " + moves);
+            saveScoreButton.setDisable(true);
         } else if (winner == 2) {
             outcomeMessage = "Player 2 Wins!";
             statsText.setText("P2 Time: " + elapsedTime + "s | Score: " + score + " | Moves: " + moves);
@@ -108,6 +118,10 @@ public class EndGameController {
         }
         
         headerText.setText(outcomeMessage);
+        if ((winner == 1 || winner == 2) && parMoves > 0) {
+            statsText.setText(statsText.getText() + String.format(Locale.ROOT, "\nPar: %d | Efficiency: %.0f%%",
+                    parMoves, 100 * ParMoves.efficiency(parMoves, moves)));
+        }
         
         // Try to load background image from UIScreens
         try {
@@ -128,7 +142,7 @@ public class EndGameController {
         
         if (uiScreens != null) {
             // Call appropriate score saving mechanism through the UIScreens
-            uiScreens.saveScore(winner, score, moves, elapsedTime, gameMode);
+            uiScreens.saveScore(winner, score, moves, elapsedTime, gameMode, parMoves);
         }
     }
     
@@ -145,7 +159,9 @@ public class EndGameController {
                 uiScreens.setCustomSettingsForRestart(
                     gameController.getMazeSeed(),
                     gameController.getMazeSize(),
-                    gameController.getGameMode()
+                    gameController.getGameMode(),
+                    gameController.getMazeGenerator(),
+                    gameController.getMazeFloors()
                 );
                 uiScreens.showCustomGameDialog(
                     true, 
@@ -0,0 +1,102 @@
+package com.mnour.jfxmaze;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * An unbounded maze made of square chunks that are generated the first time they are looked at.
+ * <p>
+ * World cells use the same row/column coordinates as a regular {@link MazeModel}, extended to
+ * negative values. Each chunk covers {@link #CHUNK_CELLS} x {@link #CHUNK_CELLS} cells and owns
+ * its north wall row and west wall column; the rooms inside it are carved as a perfect maze by the
+ * chosen {@link MazeGenerator}. One gap is then opened in the north wall and one in the west wall,
+ * so every chunk is joined to its neighbours and the whole world is connected.
+ * <p>
+ * A chunk's random stream comes from {@link MazeRandom#forRegion} keyed by the chunk coordinates,
+ * so a chunk evicted from the bounded LRU cache comes back identical when it is visited again,
+ * and memory stays the same no matter how far the player walks.
+ */
+public class EndlessMaze {
+    // Rooms per chunk side; a chunk spans 2 * CHUNK_ROOMS cells including its north and west walls
+    public static final int CHUNK_ROOMS = 16;
+    public static final int CHUNK_CELLS = 2 * CHUNK_ROOMS;
+    // Enough chunks for a full screen around the player plus the way back
+    private static final int MAX_CACHED_CHUNKS = 64;
+
+    private final long seed;
+    private final MazeGenerator generator;
+    private final Map<Long, MazeGrid> chunks = new LinkedHashMap<>(MAX_CACHED_CHUNKS * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, MazeGrid> eldest) {
+            return size() > MAX_CACHED_CHUNKS;
+        }
+    };
+    private long chunksGenerated = 0;
+
+    /**
+     * Creates an endless maze.
+     *
+     * @param seed The world seed
+     * @param generator The algorithm that carves each chunk
+     */
+    public EndlessMaze(long seed, MazeGenerator generator) {
+        this.seed = seed;
+        this.generator = generator;
+    }
+
+    /**
+     * Gets the type of the cell at the given world position, generating its chunk if needed.
+     *
+     * @param row The world row
+     * @param col The world column
+     * @return The {@link MazeGrid} cell type
+     */
+    public int get(int row, int col) {
+        MazeGrid chunk = chunkAt(Math.floorDiv(row, CHUNK_CELLS), Math.floorDiv(col, CHUNK_CELLS));
+        return chunk.get(Math.floorMod(row, CHUNK_CELLS), Math.floorMod(col, CHUNK_CELLS));
+    }
+
+    /**
+     * Checks whether the given world position can be walked on.
+     *
+     * @param row The world row
+     * @param col The world column
+     * @return true if the cell is not a wall, false otherwise
+     */
+    public boolean isOpen(int row, int col) {
+        return get(row, col) != MazeGrid.WALL;
+    }
+
+    /**
+     * Gets a chunk from the cache or generates it.
+     */
+    private MazeGrid chunkAt(int chunkRow, int chunkCol) {
+        long key = ((long) chunkRow << 32) | (chunkCol & 0xFFFFFFFFL);
+        MazeGrid chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = generateChunk(key);
+            chunks.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Carves one chunk and opens its north and west walls.
+     */
+    private MazeGrid generateChunk(long key) {
+        // One extra row and column close the rooms on the south and east; they belong to the next chunks
+        MazeGrid chunk = new HeapMazeGrid(CHUNK_CELLS + 1, CHUNK_CELLS + 1);
+        RandomGenerator random = MazeRandom.forRegion(seed, key);
+        generator.generate(chunk, random);
+        chunk.set(0, 2 * random.nextInt(CHUNK_ROOMS) + 1, MazeGrid.PATH);
+        chunk.set(2 * random.nextInt(CHUNK_ROOMS) + 1, 0, MazeGrid.PATH);
+        chunksGenerated++;
+        return chunk;
+    }
+
+    // Getters
+    public long getSeed() { return seed; }
+    public int getCachedChunkCount() { return chunks.size(); }
+    public long getChunksGenerated() { return chunksGenerated; }
+}
@@ -0,0 +1,203 @@
+package com.mnour.jfxmaze;
+
+/**
+ * What each player of a fog-of-war game can see and has already seen.
+ * <p>
+ * Each player has a bitset of visible cells and a bitset of explored cells. When a player moves,
+ * recursive shadowcasting from the new position lights the cells in line of sight within
+ * {@link #getRadius() a radius}: each of the eight octants is scanned row by row outward, and a
+ * wall narrows the range of slopes still lit beyond it, so cells hidden behind walls are never
+ * visited. The work per move is bounded by the radius, not the maze size. The newly lit cells
+ * are compared with the player's previous visible list, and only the cells whose state changed
+ * go to the {@link #getChanges() dirty list} for the renderer. Walls are lit but block the light,
+ * and the light never leaves the floor the player is on.
+ */
+public final class FogOfWar {
+    public static final int UNSEEN = 0;
+    public static final int EXPLORED = 1;
+    public static final int VISIBLE = 2;
+
+    // Octant transforms: row = dx * XX + dy * XY, col = dx * YX + dy * YY from the origin
+    private static final int[] XX = {1, 0, 0, -1, -1, 0, 0, 1};
+    private static final int[] XY = {0, 1, -1, 0, 0, -1, 1, 0};
+    private static final int[] YX = {0, 1, 1, 0, 0, -1, -1, 0};
+    private static final int[] YY = {1, 0, 0, 1, -1, 0, 0, -1};
+    // Changes kept between draws before the renderer is asked to repaint the whole fog
+    private static final int CHANGE_CAPACITY = 1 << 16;
+
+    private final MazeGrid grid;
+    private final int cols;
+    private final int floorRows;
+    private final int radius;
+    private final long[][] visible;
+    private final long[][] explored;
+    private final int[][] visibleLists;
+    private final int[] visibleCounts;
+    private final DirtyCellList changes = new DirtyCellList(CHANGE_CAPACITY);
+
+    // Cast scratch, shared by the players since only one is updated at a time
+    private final long[] lit;
+    private int[] litList;
+    private int litCount;
+    private int minRow;
+    private int maxRow;
+
+    /**
+     * Creates the fog for a maze in which nothing has been seen yet.
+     *
+     * @param grid The maze
+     * @param floorRows The number of rows per floor
+     * @param players The number of players
+     * @param radius How far a player sees along an open line, in cells
+     */
+    public FogOfWar(MazeGrid grid, int floorRows, int players, int radius) {
+        this.grid = grid;
+        this.cols = grid.getCols();
+        this.floorRows = floorRows;
+        this.radius = radius;
+        int words = (grid.getCellCount() + 63) >>> 6;
+        visible = new long[players][words];
+        explored = new long[players][words];
+        int area = (2 * radius + 1) * (2 * radius + 1);
+        visibleLists = new int[players][area];
+        visibleCounts = new int[players];
+        lit = new long[words];
+        litList = new int[area];
+    }
+
+    /**
+     * Recomputes what a player sees from a new position.
+     *
+     * @param playerNum The player number, from 1
+     * @param row The player's row
+     * @param col The player's column
+     */
+    public void update(int playerNum, int row, int col) {
+        int player = playerNum - 1;
+        minRow = row / floorRows * floorRows;
+        maxRow = minRow + floorRows - 1;
+
+        litCount = 0;
+        light(row, col);
+        for (int octant = 0; octant < 8; octant++) {
+            castLight(row, col, 1, 1.0, 0.0, XX[octant], XY[octant], YX[octant], YY[octant]);
+        }
+
+        long[] seen = visible[player];
+        long[] known = explored[player];
+        int[] previous = visibleLists[player];
+        for (int i = 0; i < visibleCounts[player]; i++) {
+            int cell = previous[i];
+            if ((lit[cell >>> 6] & (1L << cell)) == 0) {
+                seen[cell >>> 6] &= ~(1L << cell);
+                changes.add(cell);
+            }
+        }
+        for (int i = 0; i < litCount; i++) {
+            int cell = litList[i];
+            if ((seen[cell >>> 6] & (1L << cell)) == 0) {
+                seen[cell >>> 6] |= 1L << cell;
+                known[cell >>> 6] |= 1L << cell;
+                changes.add(cell);
+            }
+            lit[cell >>> 6] &= ~(1L << cell);
+        }
+
+        // The lit cells become the player's visible list; the old list is reused for the next cast
+        visibleLists[player] = litList;
+        visibleCounts[player] = litCount;
+        litList = previous;
+    }
+
+    /**
+     * Lights one octant, starting at the given distance and between the given slopes.
+     */
+    private void castLight(int originRow, int originCol, int distance, double start, double end,
+                           int xx, int xy, int yx, int yy) {
+        if (start < end) return;
+        int radiusSquared = radius * radius;
+        double nextStart = 0.0;
+        for (int i = distance; i <= radius; i++) {
+            boolean blocked = false;
+            for (int dx = -i, dy = -i; dx <= 0; dx++) {
+                double leftSlope = (dx - 0.5) / (dy + 0.5);
+                double rightSlope = (dx + 0.5) / (dy - 0.5);
+                if (start < rightSlope) continue;
+                if (end > leftSlope) break;
+
+                int row = originRow + dx * xx + dy * xy;
+                int col = originCol + dx * yx + dy * yy;
+                boolean inside = row >= minRow && row <= maxRow && col >= 0 && col < cols;
+                if (inside && dx * dx + dy * dy <= radiusSquared) {
+                    light(row, col);
+                }
+                boolean opaque = !inside || grid.getAt(row * cols + col) == MazeGrid.WALL;
+                if (blocked) {
+                    if (opaque) {
+                        nextStart = rightSlope;
+                    } else {
+                        blocked = false;
+                        start = nextStart;
+                    }
+                } else if (opaque && i < radius) {
+                    blocked = true;
+                    castLight(originRow, originCol, i + 1, start, leftSlope, xx, xy, yx, yy);
+                    nextStart = rightSlope;
+                }
+            }
+            if (blocked) break;
+        }
+    }
+
+    private void light(int row, int col) {
+        int cell = row * cols + col;
+        if ((lit[cell >>> 6] & (1L << cell)) != 0) return;
+        lit[cell >>> 6] |= 1L << cell;
+        if (litCount == litList.length) {
+            int[] grown = new int[litCount * 2];
+            System.arraycopy(litList, 0, grown, 0, litCount);
+            litList = grown;
+        }
+        litList[litCount++] = cell;
+    }
+
+    /**
+     * Gets how a cell is shown on the shared screen: visible if any player sees it, explored if
+     * any player has seen it, otherwise unseen.
+     *
+     * @param cell The flat cell index
+     * @return {@link #VISIBLE}, {@link #EXPLORED} or {@link #UNSEEN}
+     */
+    public int getState(int cell) {
+        int state = UNSEEN;
+        for (int player = 0; player < visible.length; player++) {
+            if ((visible[player][cell >>> 6] & (1L << cell)) != 0) return VISIBLE;
+            if ((explored[player][cell >>> 6] & (1L << cell)) != 0) state = EXPLORED;
+        }
+        return state;
+    }
+
+    /**
+     * Checks whether a player sees a cell right now.
+     */
+    public boolean isVisible(int playerNum, int cell) {
+        return (visible[playerNum - 1][cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Checks whether a player has ever seen a cell.
+     */
+    public boolean isExplored(int playerNum, int cell) {
+        return (explored[playerNum - 1][cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Gets the cells whose state changed since the renderer last cleared the list.
+     */
+    public DirtyCellList getChanges() {
+        return changes;
+    }
+
+    // Getters
+    public int getRadius() { return radius; }
+}
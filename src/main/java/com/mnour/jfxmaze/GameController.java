@@ -2,18 +2,17 @@ package com.mnour.jfxmaze;
 
 import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Cursor;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
-import javafx.scene.control.Label;
 import javafx.scene.input.KeyCode;
-import javafx.scene.layout.BorderPane;
-import javafx.scene.layout.HBox;
-import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Main controller for the JFXMaze game.
@@ -25,6 +24,10 @@ public class GameController {
     // Define fixed stage dimensions for consistent UI
     private static final double FIXED_STAGE_WIDTH = 600.0;
     private static final double FIXED_STAGE_HEIGHT = 750.0;
+    // Cells shown per hint key press
+    private static final int HINT_STEPS = 5;
+    // Longest wait for the bot's current tick when a game ends; a tick plans for a few milliseconds
+    private static final long BOT_STOP_TIMEOUT_MILLIS = 500;
 
     // Core components
     private Stage primaryStage;
@@ -32,14 +35,28 @@ public class GameController {
     private MazeRenderer mazeRenderer;
     private UIScreens uiScreens;
     private ScoreManager scoreManager;
+    // Par of the current maze, searched in the background while the game runs
+    private CompletableFuture<ParMoves> parMoves;
+    // Difficulty search in progress, or null; the screen is busy until it completes
+    private CompletableFuture<MazeModel> seedSearch;
+    private final MazeCache mazeCache = new MazeCache();
+    private final MazePregenerator pregenerator = new MazePregenerator(mazeCache);
+    private GameScreenController gameScreenController;
+
+    // Computer opponent for player 2; no strategy means two people share the keyboard
+    private MazeBot.Strategy botStrategy;
+    private BotOpponent.Skill botSkill = BotOpponent.Skill.NORMAL;
+    private BotOpponent botOpponent;
+    private final AtomicBoolean botMovesScheduled = new AtomicBoolean();
+    // Whether new games hide what the players cannot see
+    private boolean fogOfWar = false;
     
     // Game state
-    private Timer gameTimer;
+    // Wall-clock bounds of the current game in milliseconds; the stop time is 0 while it runs
     private long startTime;
-    private int elapsedTime;
+    private long stopTime;
     private String currentLoggedInUsername;
     private Stage authStage;
-    private BorderPane gameRootPane;
     
     /**
      * Initializes the game controller and loads scores.
@@ -169,50 +186,20 @@ public class GameController {
     }
     
     /**
-     * Starts the game timer and updates elapsed time every second.
+     * Starts the game clock. Nothing ticks: the elapsed time is read off the wall clock when
+     * the game screen asks for it.
      */
-    private void startGameTimer() {
+    private void startGameClock() {
         startTime = System.currentTimeMillis();
-        elapsedTime = 0;
-        
-        if (gameTimer != null) {
-            gameTimer.cancel();
-        }
-        
-        gameTimer = new Timer();
-        gameTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                Platform.runLater(() -> {
-                    if (mazeModel.getWinner() == 0) {
-                        long currentTime = System.currentTimeMillis();
-                        elapsedTime = (int) ((currentTime - startTime) / 1000);
-                        updateGameUI();
-                    }
-                });
-            }
-        }, 0, 1000); // Update every second
+        stopTime = 0;
     }
-    
+
     /**
-     * Updates the game UI with current game state (time, scores, moves).
+     * Stops the game clock, freezing the elapsed time; does nothing if it is already stopped.
      */
-    private void updateGameUI() {
-        // Update time label, player scores, etc.
-        Scene scene = primaryStage.getScene();
-        if (scene != null && scene.getRoot() == gameRootPane) {
-            VBox statusPanel = (VBox) gameRootPane.getBottom();
-            HBox playerInfoBox = (HBox) statusPanel.getChildren().get(0); // First child is playerInfoBox
-            Label timeLabel = (Label) playerInfoBox.getChildren().get(0);
-            timeLabel.setText("Time: " + elapsedTime + "s");
-
-            Label p1Label = (Label) playerInfoBox.getChildren().get(1);
-            p1Label.setText(String.format("P1 Score: %d Moves: %d", mazeModel.getPlayer1Score(), mazeModel.getPlayer1Moves()));
-
-            if (mazeModel.getGameMode() == MazeModel.DUAL_PLAYER && playerInfoBox.getChildren().size() > 2) {
-                Label p2Label = (Label) playerInfoBox.getChildren().get(2);
-                p2Label.setText(String.format("P2 Score: %d Moves: %d", mazeModel.getPlayer2Score(), mazeModel.getPlayer2Moves()));
-            }
+    public void stopGameClock() {
+        if (stopTime == 0) {
+            stopTime = System.currentTimeMillis();
         }
     }
 
@@ -220,6 +207,48 @@ public class GameController {
     public int getGameMode() { return mazeModel != null ? mazeModel.getGameMode() : MazeModel.SINGLE_PLAYER; }
     public int getMazeSize() { return mazeModel != null ? mazeModel.getMazeSize() : MazeModel.DEFAULT_SIZE; }
     public long getMazeSeed() { return mazeModel != null ? mazeModel.getSeed() : 0; }
+    public MazeGenerator getMazeGenerator() { return mazeModel != null ? mazeModel.getGenerator() : MazeGenerators.DEFAULT; }
+    public int getMazeFloors() { return mazeModel != null ? mazeModel.getFloors() : 1; }
+    public MazeBot.Strategy getBotStrategy() { return botStrategy; }
+    public BotOpponent.Skill getBotSkill() { return botSkill; }
+    public boolean isFogOfWar() { return fogOfWar; }
+
+    /**
+     * Sets whether the games started from now on are played in fog of war.
+     *
+     * @param fogOfWar true to show each player only what they can see or have seen
+     */
+    public void setFogOfWar(boolean fogOfWar) {
+        this.fogOfWar = fogOfWar;
+    }
+
+    /**
+     * Checks whether player 2 of the current game is played by the computer.
+     */
+    public boolean hasBotOpponent() {
+        return botOpponent != null;
+    }
+
+    /**
+     * Sets who plays player 2 in the dual-player games started from now on. Bots only play
+     * single-floor mazes; multi-floor games keep two human players.
+     *
+     * @param strategy The bot's strategy, or null for a second human player
+     * @param skill How fast and how accurately the bot moves
+     */
+    public void setBotOpponent(MazeBot.Strategy strategy, BotOpponent.Skill skill) {
+        this.botStrategy = strategy;
+        if (skill != null) this.botSkill = skill;
+    }
+
+    /**
+     * Stops the bot opponent's thread, if the current game has one, and waits for it to finish.
+     *
+     * @return Whether no bot thread is left reading the maze
+     */
+    public boolean stopBot() {
+        return botOpponent == null || botOpponent.stopAndWait(BOT_STOP_TIMEOUT_MILLIS);
+    }
     
     /**
      * Gets the maze model (game state).
@@ -227,19 +256,21 @@ public class GameController {
     public MazeModel getMazeModel() {
         return mazeModel;
     }
-    
+
     /**
-     * Gets the game timer.
+     * Gets the score manager, which keeps the saved scores.
      */
-    public Timer getGameTimer() {
-        return gameTimer;
+    public ScoreManager getScoreManager() {
+        return scoreManager;
     }
     
     /**
      * Gets the elapsed seconds since game start.
      */
     public int getElapsedSeconds() {
-        return elapsedTime;
+        if (startTime == 0) return 0;
+        long end = stopTime != 0 ? stopTime : System.currentTimeMillis();
+        return (int) ((end - startTime) / 1000);
     }
     
     /**
@@ -249,18 +280,24 @@ public class GameController {
      * @param controller The FXML controller
      */
     public void onKeyPress(KeyCode code, GameScreenController controller) {
-        if (mazeModel == null) return;
+        // The old maze stays on screen, frozen, while a new one is searched for
+        if (mazeModel == null || seedSearch != null) return;
 
         if (mazeModel.getWinner() != 0) {
             return;
         }
 
-        int oldP1Score = mazeModel.getPlayer1Score();
-        int oldP2Score = mazeModel.getPlayer2Score();
-        
-        boolean moved = false;
         int dx = 0, dy = 0;
 
+        // Hint keys: H for player 1, Enter for player 2
+        if (code == KeyCode.H || (code == KeyCode.ENTER && mazeModel.getGameMode() == MazeModel.DUAL_PLAYER && botOpponent == null)) {
+            int hintPlayer = code == KeyCode.H ? 1 : 2;
+            if (controller != null && controller.getMazeRenderer() != null) {
+                controller.getMazeRenderer().showHint(hintPlayer, mazeModel.getHint(hintPlayer, HINT_STEPS));
+            }
+            return;
+        }
+
         // Determine direction based on key
         if (code == KeyCode.W || code == KeyCode.UP) {
             dx = -1; dy = 0;
@@ -274,25 +311,37 @@ public class GameController {
         
         // Process movement if a direction key was pressed
         if (dx != 0 || dy != 0) {
-            int playerNum = 1; // Default to player 1
-            
             // Determine which player to move
             if ((code == KeyCode.W || code == KeyCode.A || code == KeyCode.S || code == KeyCode.D) || 
                 mazeModel.getGameMode() != MazeModel.DUAL_PLAYER) {
                 // Player 1 movement
-                moved = mazeModel.movePlayer(1, dx, dy);
-                playerNum = 1;
-            } else if (mazeModel.getGameMode() == MazeModel.DUAL_PLAYER) {
-                // Player 2 movement (arrow keys in dual player mode)
-                moved = mazeModel.movePlayer(2, dx, dy);
-                playerNum = 2;
-            }
-            
-            // Update player direction if moved
-            if (moved && controller != null && controller.getMazeRenderer() != null) {
-                controller.getMazeRenderer().updatePlayerDirection(playerNum, dx, dy);
+                applyMove(1, dx, dy, controller);
+            } else if (mazeModel.getGameMode() == MazeModel.DUAL_PLAYER && botOpponent == null) {
+                // Player 2 movement (arrow keys in dual player mode, unless the bot plays player 2)
+                applyMove(2, dx, dy, controller);
             }
         }
+    }
+
+    /**
+     * Moves a player and updates the screen, sounds and game state after the move.
+     *
+     * @param playerNum The player number (1 or 2)
+     * @param dx The row change
+     * @param dy The column change
+     * @param controller The FXML controller of the game screen, or null
+     */
+    private void applyMove(int playerNum, int dx, int dy, GameScreenController controller) {
+        int oldP1Score = mazeModel.getPlayer1Score();
+        int oldP2Score = mazeModel.getPlayer2Score();
+
+        boolean moved = mazeModel.movePlayer(playerNum, dx, dy);
+
+        // Update player direction if moved; a hint is only good for the cell it was asked from
+        if (moved && controller != null && controller.getMazeRenderer() != null) {
+            controller.getMazeRenderer().updatePlayerDirection(playerNum, dx, dy);
+            controller.getMazeRenderer().clearHint(playerNum);
+        }
 
         // If the player moved, update the UI
         if (moved) {
@@ -314,13 +363,13 @@ public class GameController {
                 }
                 
                 // Handle win
-                if (gameTimer != null) {
-                    gameTimer.cancel();
-                    gameTimer = null;
-                }
+                stopGameClock();
+                stopBot();
 
                 int finalScore = (winner == 1) ? mazeModel.getPlayer1Score() : mazeModel.getPlayer2Score();
                 int finalMoves = (winner == 1) ? mazeModel.getPlayer1Moves() : mazeModel.getPlayer2Moves();
+                int finalPar = getParMoves(winner);
+                int finalTime = getElapsedSeconds();
                 
                 // Give a slight delay before showing end game screen
                 Timer delayTimer = new Timer();
@@ -329,84 +378,265 @@ public class GameController {
                     public void run() {
                         Platform.runLater(() -> {
                             if (uiScreens != null) {
-                                uiScreens.showEndGameScreenFXML(winner, finalScore, finalMoves, elapsedTime);
+                                uiScreens.showEndGameScreenFXML(winner, finalScore, finalMoves, finalTime, finalPar);
                             }
                         });
                     }
                 }, 500);
             }
             
+            // Drawn on the next pulse, together with any other move made before it
             if (controller != null) {
-                controller.updatePlayerLabels();
-                controller.getMazeRenderer().renderMaze();
+                controller.requestFrame();
             }
         }
     }
 
     /**
-     * Starts a new game with the specified settings using FXML UI.
+     * Starts a new game with the specified settings using FXML UI and the default generation algorithm.
      * @param gameMode The game mode (SINGLE_PLAYER or DUAL_PLAYER)
      * @param mazeSize The maze size
      * @param seed The random seed for maze generation
      */
     public void startGameFXML(int gameMode, int mazeSize, long seed) {
-        // Cancel any existing timer
-        if (gameTimer != null) {
-            gameTimer.cancel();
-            gameTimer = null;
+        startGameFXML(gameMode, mazeSize, seed, MazeGenerators.DEFAULT);
+    }
+
+    /**
+     * Starts a new game with the specified settings using FXML UI.
+     * @param gameMode The game mode (SINGLE_PLAYER or DUAL_PLAYER)
+     * @param mazeSize The maze size
+     * @param seed The random seed for maze generation
+     * @param generator The algorithm that carves the maze
+     */
+    public void startGameFXML(int gameMode, int mazeSize, long seed, MazeGenerator generator) {
+        startGameFXML(gameMode, mazeSize, seed, generator, 1);
+    }
+
+    /**
+     * Starts a new game with the specified settings and number of floors using FXML UI.
+     * @param gameMode The game mode (SINGLE_PLAYER or DUAL_PLAYER)
+     * @param mazeSize The maze size
+     * @param seed The random seed for maze generation
+     * @param generator The algorithm that carves the maze
+     * @param floors The number of floors
+     */
+    public void startGameFXML(int gameMode, int mazeSize, long seed, MazeGenerator generator, int floors) {
+        if (floors > 1 && gameMode != MazeModel.ENDLESS) {
+            // Multi-floor mazes are neither cached nor pregenerated
+            startGameFXML(new MazeModel(mazeSize, gameMode, seed, generator,
+                    MazeModel.DEFAULT_EXIT_DIFFICULTY, MazeModel.CLASSIC_BONUS_DENSITY, floors));
+            return;
         }
-        
-        // Create a new model with the specified settings
-        mazeModel = new MazeModel(mazeSize, gameMode, seed);
-        
-        // Try to generate a solvable maze (reusing existing code)
-        boolean mazeGeneratedSuccessfully = false;
-        int mazeRegenCount = 0;
-        
-        do {
-            if (mazeModel.isExitReachable()) {
-                mazeGeneratedSuccessfully = true;
-                break;
-            } else {
-                mazeRegenCount++;
-                System.err.println("Maze generation attempt " + mazeRegenCount + " with seed " + seed + " failed: Exit unreachable.");
-                
-                if (mazeRegenCount >= 5) {
-                    Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
-                    alert.setTitle("Maze Generation Failed");
-                    alert.setHeaderText("Failed 5 times to create a solvable maze.");
-                    alert.setContentText("Try with a new random seed?");
-                    
-                    if (alert.showAndWait().get().getButtonData().isDefaultButton()) {
-                        seed = System.currentTimeMillis();
-                        if (seed == 0) seed = 1;
-                        mazeModel = new MazeModel(mazeSize, gameMode, seed);
-                        mazeRegenCount = 0;
-                    } else {
-                        uiScreens.showFXMLWelcomeScreen();
-                        return;
-                    }
-                } else {
-                    seed++;
-                    if (seed == 0) seed = 1;
-                    mazeModel = new MazeModel(mazeSize, gameMode, seed);
-                }
+        if (gameMode == MazeModel.ENDLESS) {
+            // Endless chunks are generated as the player walks, so there is nothing to prepare
+            startGameFXML(MazeModel.endless(mazeSize, seed, generator));
+            return;
+        }
+        // A restart usually finds its maze already built in the background; it is stored now that it is replayed
+        MazeModel prepared = pregenerator.take(mazeSize, gameMode, seed, generator);
+        if (prepared != null) {
+            mazeCache.store(prepared);
+            startGameFXML(prepared);
+        } else {
+            startGameFXML(mazeCache.getOrCreate(mazeSize, gameMode, seed, generator));
+        }
+    }
+
+    /**
+     * Starts a new game with a new random seed, using a maze built in the background when one is ready.
+     *
+     * @param gameMode The game mode
+     * @param mazeSize The maze size
+     * @param generator The algorithm that carves the maze
+     */
+    public void startNewGameFXML(int gameMode, int mazeSize, MazeGenerator generator) {
+        startNewGameFXML(gameMode, mazeSize, generator, 1);
+    }
+
+    /**
+     * Starts a new game with a new random seed and the given number of floors.
+     *
+     * @param gameMode The game mode
+     * @param mazeSize The maze size
+     * @param generator The algorithm that carves the maze
+     * @param floors The number of floors
+     */
+    public void startNewGameFXML(int gameMode, int mazeSize, MazeGenerator generator, int floors) {
+        if (floors > 1 && gameMode != MazeModel.ENDLESS) {
+            long seed = System.currentTimeMillis();
+            if (seed == 0) seed = 1;
+            startGameFXML(gameMode, mazeSize, seed, generator, floors);
+            return;
+        }
+        // A new seed is played once, so its maze is not stored in the cache
+        MazeModel prepared = pregenerator.takeFresh(mazeSize, gameMode, generator);
+        if (prepared == null) {
+            long seed = System.currentTimeMillis();
+            if (seed == 0) seed = 1;
+            prepared = gameMode == MazeModel.ENDLESS ? MazeModel.endless(mazeSize, seed, generator)
+                    : new MazeModel(mazeSize, gameMode, seed, generator);
+        }
+        startGameFXML(prepared);
+    }
+
+    /**
+     * Starts a new game on a seed picked for the given difficulty preset. The search builds
+     * hundreds of candidate mazes, so it runs in the background while the current screen is
+     * disabled, and the game starts on the JavaFX thread once a seed is found.
+     *
+     * @param gameMode The game mode (SINGLE_PLAYER or DUAL_PLAYER)
+     * @param mazeSize The maze size
+     * @param generator The algorithm that carves the maze
+     * @param difficulty The difficulty preset
+     */
+    public void startDifficultyGameFXML(int gameMode, int mazeSize, MazeGenerator generator, SeedSearch.Difficulty difficulty) {
+        if (seedSearch != null) return;
+        Scene scene = primaryStage.getScene();
+        setBusy(scene, true);
+        long searchSeed = System.nanoTime();
+        // Like any new seed, a searched one stays out of the cache until it is restarted
+        seedSearch = CompletableFuture.supplyAsync(() -> new MazeModel(mazeSize, gameMode,
+                SeedSearch.findSeed(mazeSize, gameMode, generator, difficulty, searchSeed), generator));
+        seedSearch.whenComplete((model, error) -> Platform.runLater(() -> {
+            seedSearch = null;
+            setBusy(scene, false);
+            if (error != null) {
+                System.err.println("Seed search failed: " + error.getMessage());
+                Alert errorAlert = new Alert(Alert.AlertType.ERROR, "Failed to find a maze of this difficulty. Returning to main menu.");
+                errorAlert.showAndWait();
+                uiScreens.showFXMLWelcomeScreen();
+                return;
             }
-        } while (mazeRegenCount < 5 || mazeGeneratedSuccessfully);
+            startGameFXML(model);
+        }));
+    }
+
+    /**
+     * Shows that the game is working on something by disabling the screen and showing a wait cursor.
+     */
+    private void setBusy(Scene scene, boolean busy) {
+        if (scene == null) return;
+        scene.setCursor(busy ? Cursor.WAIT : Cursor.DEFAULT);
+        if (scene.getRoot() != null) {
+            scene.getRoot().setDisable(busy);
+        }
+    }
+
+    /**
+     * Starts a game on an already generated maze.
+     *
+     * @param model The maze model to play
+     */
+    private void startGameFXML(MazeModel model) {
+        // Stop the previous game, if any
+        stopGameClock();
+        boolean botStopped = stopBot();
+        botOpponent = null;
         
-        if (!mazeGeneratedSuccessfully) {
-            System.err.println("Could not generate a solvable maze after all attempts.");
+        // The previous maze is freed once nothing shows it or searches it any more
+        MazeModel previous = mazeModel;
+        CompletableFuture<ParMoves> previousPar = parMoves;
+        mazeModel = model;
+        parMoves = null;
+        
+        // Generators certify connectivity while carving, so this only searches mazes without a certificate
+        if (!mazeModel.isSolvable()) {
+            System.err.println("Maze with seed " + model.getSeed() + " (" + model.getGenerator().getName() + ") is not solvable.");
             Alert errorAlert = new Alert(Alert.AlertType.ERROR, "Failed to generate a solvable maze. Returning to main menu.");
             errorAlert.showAndWait();
             uiScreens.showFXMLWelcomeScreen();
+            releaseIfReplaced(previous, previousPar, botStopped);
             return;
         }
         
+        // The par only needs the maze and the starts, so it is worked out off the FX thread while the players start moving
+        parMoves = ParMoves.computeAsync(model);
+
+        if (fogOfWar) {
+            model.enableFogOfWar();
+        }
+
+        // Player 2 is the computer when a bot is chosen and the maze has one floor
+        if (botStrategy != null && model.getGameMode() == MazeModel.DUAL_PLAYER && model.getFloors() == 1) {
+            botOpponent = new BotOpponent(model, botStrategy, botSkill, model.getSeed() ^ System.nanoTime());
+        }
+
         // Use the FXML-based game UI instead of setting up our own
         uiScreens.showGameScreenFXML();
+        releaseIfReplaced(previous, previousPar, botStopped);
         
-        // Start the game timer
-        startGameTimer();
+        // Start the game clock
+        startGameClock();
+        if (botOpponent != null) {
+            botOpponent.start(this::scheduleBotMoves);
+        }
+
+        // Build the likely next mazes while the player is busy: a restart and a new seed
+        if (model.isEndless() || model.getFloors() > 1) return;
+        pregenerator.prepare(model.getMazeSize(), model.getGameMode(), model.getSeed(), model.getGenerator());
+        pregenerator.prepareFresh(model.getMazeSize(), model.getGameMode(), model.getGenerator());
+    }
+
+    /**
+     * Gets the par for a player's route so far: the fewest moves to the exit through the dots they collected.
+     *
+     * @param playerNum The player number (1 or 2)
+     * @return The par, or -1 if the maze has no exit or the search failed
+     */
+    public int getParMoves(int playerNum) {
+        try {
+            ParMoves par = parMoves != null ? parMoves.join() : null;
+            return par != null ? par.forCollected(playerNum, mazeModel.getCollectedDots(playerNum)) : -1;
+        } catch (RuntimeException e) {
+            System.err.println("Could not compute par moves: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Has the JavaFX thread apply the bot's queued moves, once however many are waiting; called on the bot thread.
+     */
+    private void scheduleBotMoves() {
+        if (botMovesScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::applyBotMoves);
+        }
+    }
+
+    /**
+     * Applies the moves the bot has queued since the last call.
+     */
+    private void applyBotMoves() {
+        botMovesScheduled.set(false);
+        BotOpponent bot = botOpponent;
+        if (bot == null) return;
+        for (int move = bot.pollMove(); move >= 0 && mazeModel.getWinner() == 0; move = bot.pollMove()) {
+            applyMove(2, MazeBot.dx(move), MazeBot.dy(move), gameScreenController);
+        }
+    }
+
+    /**
+     * Frees the grid of a maze that is no longer being played, so off-heap memory is returned
+     * as soon as a new game starts instead of whenever the collector runs. A par search still
+     * reading the maze is left to finish first; the par cannot be cancelled once it has started,
+     * so the grid is freed when it completes.
+     *
+     * @param previous The maze that was played before, or null
+     * @param previousPar The par search started for that maze, or null
+     * @param botStopped Whether the bot that played on that maze, if any, has stopped
+     */
+    private void releaseIfReplaced(MazeModel previous, CompletableFuture<ParMoves> previousPar, boolean botStopped) {
+        if (previous == null || previous == mazeModel) return;
+        if (!botStopped) {
+            // Freeing the grid under a running bot would fail its reads; the memory is kept instead
+            System.err.println("Bot did not stop in time; the previous maze is not freed.");
+            return;
+        }
+        if (previousPar == null || previousPar.isDone()) {
+            previous.release();
+        } else {
+            previousPar.whenComplete((par, error) -> previous.release());
+        }
     }
 
     /**
@@ -417,4 +647,12 @@ public class GameController {
         this.mazeRenderer = renderer;
     }
 
+    /**
+     * Sets the controller of the game screen, which shows the moves that do not come from key presses.
+     * @param controller The game screen controller instance.
+     */
+    public void setGameScreenController(GameScreenController controller) {
+        this.gameScreenController = controller;
+    }
+
 } 
\ No newline at end of file
@@ -1,8 +1,6 @@
 package com.mnour.jfxmaze;
 
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.animation.AnimationTimer;
 import javafx.fxml.FXML;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.control.Button;
@@ -13,7 +11,6 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
-import javafx.util.Duration;
 
 /**
  * Controller for the game screen FXML
@@ -38,8 +35,10 @@ public class GameScreenController {
     private UIScreens uiScreens;
     private Stage primaryStage;
     
-    // Timer for continuous UI updates
-    private Timeline updateTimeline;
+    // Draws a frame on the pulse after something changed, and ticks the time label once a second
+    private AnimationTimer frameScheduler;
+    private boolean frameRequested = false;
+    private int shownSeconds = -1;
     
     // Audio manager reference
     private AudioManager audioManager = AudioManager.getInstance();
@@ -70,9 +69,8 @@ public class GameScreenController {
         // Add window close handler
         primaryStage.setOnCloseRequest(event -> {
             // Cancel game timer
-            if (gameController.getGameTimer() != null) {
-                gameController.getGameTimer().cancel();
-            }
+            gameController.stopGameClock();
+            gameController.stopBot();
             
             // Stop continuous updates
             stopContinuousUpdates();
@@ -99,6 +97,7 @@ public class GameScreenController {
         
         // Let the GameController know about the renderer (this fixes the texture updating)
         gameController.setMazeRenderer(mazeRenderer);
+        gameController.setGameScreenController(this);
         
         // Set up dual player UI if needed
         if (mazeModel.getGameMode() == MazeModel.DUAL_PLAYER) {
@@ -109,8 +108,13 @@ public class GameScreenController {
         
         // Set keyboard controls info
         String p1Controls = "P1: WASD";
-        String p2Controls = mazeModel.getGameMode() == MazeModel.DUAL_PLAYER ? " | P2: Arrows" : " or Arrows";
-        keyboardInfoLabel.setText("Controls: " + p1Controls + p2Controls);
+        boolean humanP2 = mazeModel.getGameMode() == MazeModel.DUAL_PLAYER && !gameController.hasBotOpponent();
+        String p2Controls = humanP2 ? " | P2: Arrows"
+                : mazeModel.getGameMode() == MazeModel.DUAL_PLAYER ? " | P2: " + gameController.getBotStrategy().getDisplayName() + " bot"
+                : " or Arrows";
+        String hintControls = mazeModel.isEndless() ? ""
+                : humanP2 ? " | Hint: H / Enter" : " | Hint: H";
+        keyboardInfoLabel.setText("Controls: " + p1Controls + p2Controls + hintControls);
         
         // Update player labels
         updatePlayerLabels();
@@ -123,34 +127,55 @@ public class GameScreenController {
     }
     
     /**
-     * Starts continuous UI updates independent of player movement
+     * Starts the frame scheduler. On each pulse it sets the time label if the shown second has
+     * changed, and if a frame was requested since the last pulse it updates the player labels
+     * and repaints the changed cells once, however many moves were made in between. A pulse
+     * with nothing new does no drawing at all. Once the game is won and its last frame is drawn,
+     * the scheduler stops itself.
      */
     private void startContinuousUpdates() {
-        // Cancel any existing timeline
-        if (updateTimeline != null && updateTimeline.getStatus() == Animation.Status.RUNNING) {
-            updateTimeline.stop();
-        }
-        
-        // Create a new timeline that updates UI every 500ms
-        updateTimeline = new Timeline(
-            new KeyFrame(Duration.millis(500), e -> {
-                updatePlayerLabels();
-                mazeRenderer.renderMaze();
-            })
-        );
-        updateTimeline.setCycleCount(Animation.INDEFINITE);
-        updateTimeline.play();
+        stopContinuousUpdates();
+        shownSeconds = -1;
+        frameRequested = false;
+
+        frameScheduler = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                int seconds = gameController.getElapsedSeconds();
+                if (seconds != shownSeconds) {
+                    shownSeconds = seconds;
+                    timeLabel.setText("Time: " + seconds + "s");
+                }
+                if (frameRequested) {
+                    frameRequested = false;
+                    updatePlayerLabels();
+                    mazeRenderer.renderChanges();
+                }
+                if (mazeModel.getWinner() != 0) {
+                    stopContinuousUpdates();
+                }
+            }
+        };
+        frameScheduler.start();
     }
     
     /**
-     * Stops the continuous UI updates
+     * Stops the frame scheduler
      */
     private void stopContinuousUpdates() {
-        if (updateTimeline != null) {
-            updateTimeline.stop();
-            updateTimeline = null;
+        if (frameScheduler != null) {
+            frameScheduler.stop();
+            frameScheduler = null;
         }
     }
+
+    /**
+     * Asks for the maze and the labels to be redrawn on the next pulse. Any number of requests
+     * before that pulse are merged into one frame.
+     */
+    public void requestFrame() {
+        frameRequested = true;
+    }
     
     /**
      * Updates the player information labels with the current state
@@ -158,19 +183,16 @@ public class GameScreenController {
     public void updatePlayerLabels() {
         if (mazeModel == null) return;
         
-        // Update time display
-        if (gameController != null) {
-            timeLabel.setText("Time: " + gameController.getElapsedSeconds() + "s");
-        }
-        
         // Update player 1 stats
+        String floorText = mazeModel.getFloors() > 1
+            ? String.format(" Floor: %d/%d", mazeModel.getCurrentFloor() + 1, mazeModel.getFloors()) : "";
         player1Label.setText(String.format("P1 Score: %d Moves: %d", 
-            mazeModel.getPlayer1Score(), mazeModel.getPlayer1Moves()));
+            mazeModel.getPlayer1Score(), mazeModel.getPlayer1Moves()) + floorText);
             
         // Update player 2 stats if in dual player mode
         if (mazeModel.getGameMode() == MazeModel.DUAL_PLAYER && playerInfoBox.getChildren().size() > 2) {
             Label player2Label = (Label) playerInfoBox.getChildren().get(2);
-            player2Label.setText(String.format("P2 Score: %d Moves: %d", 
+            player2Label.setText(String.format("%s Score: %d Moves: %d", gameController.hasBotOpponent() ? "Bot" : "P2",
                 mazeModel.getPlayer2Score(), mazeModel.getPlayer2Moves()));
         }
     }
@@ -211,9 +233,8 @@ public class GameScreenController {
             
             if (result.isPresent() && result.get() == restartButtonType) {
                 // User confirmed restart
-                if (gameController.getGameTimer() != null) {
-                    gameController.getGameTimer().cancel();
-                }
+                gameController.stopGameClock();
+                gameController.stopBot();
                 
                 // Stop our continuous updates
                 stopContinuousUpdates();
@@ -221,7 +242,9 @@ public class GameScreenController {
                 uiScreens.setCustomSettingsForRestart(
                     mazeModel.getSeed(), 
                     mazeModel.getMazeSize(), 
-                    mazeModel.getGameMode());
+                    mazeModel.getGameMode(),
+                    mazeModel.getGenerator(),
+                    mazeModel.getFloors());
                     
                 uiScreens.showCustomGameDialog(
                     false, 
@@ -258,9 +281,8 @@ public class GameScreenController {
             
             if (result.isPresent() && result.get() == quitButtonType) {
                 // User confirmed quit
-                if (gameController.getGameTimer() != null) {
-                    gameController.getGameTimer().cancel();
-                }
+                gameController.stopGameClock();
+                gameController.stopBot();
                 
                 // Stop our continuous updates
                 stopContinuousUpdates();
@@ -0,0 +1,65 @@
+package com.mnour.jfxmaze;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Growing-tree algorithm that picks the newest active room half of the time and a random one otherwise.
+ * <p>
+ * Sits between the recursive backtracker (always newest) and Prim (always random), giving
+ * long corridors with regular side branches.
+ */
+public class GrowingTreeMazeGenerator implements MazeGenerator {
+
+    @Override
+    public String getName() {
+        return "Growing Tree";
+    }
+
+    @Override
+    public ConnectivityCertificate generate(MazeGrid maze, RandomGenerator random) {
+        int roomRows = maze.getRoomRows();
+        int roomCols = maze.getRoomCols();
+        int roomCount = maze.getRoomCount();
+
+        long[] visited = new long[(roomCount + 63) >>> 6];
+        int[] active = new int[roomCount];
+        int[] neighbors = new int[4];
+
+        int start = random.nextInt(roomCount);
+        long joins = 0;
+        int activeCount = 0;
+        active[activeCount++] = start;
+        visited[start >>> 6] |= 1L << start;
+        maze.setAt(maze.roomToCell(start), MazeGrid.PATH);
+
+        while (activeCount > 0) {
+            int pick = random.nextBoolean() ? activeCount - 1 : random.nextInt(activeCount);
+            int room = active[pick];
+            int rr = room / roomCols;
+            int rc = room % roomCols;
+
+            int neighborCount = 0;
+            if (rr > 0 && !isSet(visited, room - roomCols)) neighbors[neighborCount++] = room - roomCols;
+            if (rr + 1 < roomRows && !isSet(visited, room + roomCols)) neighbors[neighborCount++] = room + roomCols;
+            if (rc > 0 && !isSet(visited, room - 1)) neighbors[neighborCount++] = room - 1;
+            if (rc + 1 < roomCols && !isSet(visited, room + 1)) neighbors[neighborCount++] = room + 1;
+
+            if (neighborCount == 0) {
+                // Fully explored: swap-remove from the active list
+                active[pick] = active[--activeCount];
+                continue;
+            }
+
+            int next = neighbors[random.nextInt(neighborCount)];
+            visited[next >>> 6] |= 1L << next;
+            maze.openPassage(room, next);
+            joins++;
+            active[activeCount++] = next;
+        }
+        return new ConnectivityCertificate(roomCount, joins);
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+}
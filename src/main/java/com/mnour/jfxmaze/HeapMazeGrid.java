@@ -0,0 +1,43 @@
+package com.mnour.jfxmaze;
+
+import java.nio.LongBuffer;
+
+/**
+ * Maze grid whose packed cells live in a {@code long[]} on the Java heap.
+ */
+public final class HeapMazeGrid extends MazeGrid {
+    private final long[] words;
+
+    /**
+     * Creates a grid of the given dimensions with every cell set to {@link #WALL}.
+     *
+     * @param rows The number of rows
+     * @param cols The number of columns
+     */
+    public HeapMazeGrid(int rows, int cols) {
+        super(rows, cols);
+        this.words = new long[wordCount(rows, cols)];
+    }
+
+    @Override
+    public int getAt(int index) {
+        return (int) ((words[index >>> WORD_SHIFT] >>> ((index & (CELLS_PER_WORD - 1)) << CELL_SHIFT)) & CELL_MASK);
+    }
+
+    @Override
+    public void setAt(int index, int type) {
+        int word = index >>> WORD_SHIFT;
+        int shift = (index & (CELLS_PER_WORD - 1)) << CELL_SHIFT;
+        words[word] = (words[word] & ~(CELL_MASK << shift)) | (((long) type & CELL_MASK) << shift);
+    }
+
+    @Override
+    public void writeWords(LongBuffer buffer) {
+        buffer.put(words);
+    }
+
+    @Override
+    public void readWords(LongBuffer buffer) {
+        buffer.get(words);
+    }
+}
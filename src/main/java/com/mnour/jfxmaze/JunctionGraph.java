@@ -0,0 +1,357 @@
+package com.mnour.jfxmaze;
+
+import java.util.Arrays;
+
+/**
+ * A maze collapsed into a weighted graph of its junctions, for searches that would otherwise
+ * walk every corridor cell.
+ * <p>
+ * Nodes are the open cells that do not have exactly two open neighbours (dead ends and
+ * junctions), plus staircases, the start and the exit. Each corridor between two nodes becomes
+ * one edge weighted by its length in steps. A staircase is an edge of weight 0 to its landing,
+ * since stepping onto it carries the player to the next floor without another move. The
+ * adjacency is stored in compressed sparse row form: the half-edges of node {@code n} are
+ * {@code offsets[n]} up to {@code offsets[n + 1]} in the target, weight and edge id arrays. Every corridor cell records the edge it lies on and its
+ * distance from that edge's first node, so a query can start or end anywhere in the maze.
+ * <p>
+ * Queries run Dijkstra's algorithm over the nodes, with the same reusable heap and stamped
+ * visited array as {@link PathFinder}. A graph is not thread-safe; give each thread its own.
+ */
+public final class JunctionGraph {
+    public static final int UNREACHABLE = -1;
+
+    private final int cols;
+    private final int nodeCount;
+    private final int edgeCount;
+
+    // Node id -> flat cell index
+    private final int[] nodeCells;
+    // CSR adjacency over half-edges
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final int[] halfEdgeIds;
+
+    // Edge id -> its two nodes and length
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final int[] edgeLength;
+
+    // Per cell: the edge a corridor cell lies on, or -1 for nodes and walls
+    private final int[] cellEdge;
+    // Per cell: the node id of a node cell, or a corridor cell's steps from its edge's first node
+    private final int[] cellIndex;
+
+    // Query scratch
+    private final int[] visited;
+    private final int[] distance;
+    private int stamp = 0;
+    private long[] heap = new long[256];
+    private int lastSettled;
+
+    /**
+     * Builds the graph of a single-floor maze.
+     *
+     * @param grid The maze
+     * @param pinnedCells Open cells to keep as nodes even inside a corridor, such as the start and exit
+     */
+    public JunctionGraph(MazeGrid grid, int[] pinnedCells) {
+        this(grid, grid.getRows(), pinnedCells);
+    }
+
+    /**
+     * Builds the graph of a maze whose floors are stacked row-wise and joined by staircases.
+     *
+     * @param grid The maze
+     * @param floorRows The number of rows per floor
+     * @param pinnedCells Open cells to keep as nodes even inside a corridor, such as the start and exit
+     */
+    public JunctionGraph(MazeGrid grid, int floorRows, int[] pinnedCells) {
+        this.cols = grid.getCols();
+        int cellCount = grid.getCellCount();
+        int floorCells = floorRows * cols;
+        cellEdge = new int[cellCount];
+        cellIndex = new int[cellCount];
+        Arrays.fill(cellEdge, -1);
+        Arrays.fill(cellIndex, -1);
+
+        // Pass 1: find the nodes
+        boolean[] pinned = new boolean[cellCount];
+        for (int cell : pinnedCells) {
+            if (cell >= 0 && cell < cellCount) pinned[cell] = true;
+        }
+        int[] nodes = new int[64];
+        int count = 0;
+        int[] around = new int[4];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int type = grid.getAt(cell);
+            if (type == MazeGrid.WALL) continue;
+            if (pinned[cell] || type == MazeGrid.STAIRS_UP || type == MazeGrid.STAIRS_DOWN
+                    || openAround(grid, cell, around) != 2) {
+                if (count == nodes.length) nodes = Arrays.copyOf(nodes, count * 2);
+                cellIndex[cell] = count;
+                nodes[count++] = cell;
+            }
+        }
+        nodeCount = count;
+        nodeCells = Arrays.copyOf(nodes, count);
+
+        // Pass 2: walk each corridor once from one of its ends
+        int[] from = new int[64];
+        int[] to = new int[64];
+        int[] length = new int[64];
+        int edges = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            int start = nodeCells[node];
+            int neighborCount = openAround(grid, start, around);
+            for (int i = 0; i < neighborCount; i++) {
+                int previous = start;
+                int cell = around[i];
+                int steps = 1;
+                if (cellEdge[cell] >= 0) continue; // Corridor already walked from its other end
+                if (isNode(cell)) {
+                    // Adjacent nodes: record the edge once, from the lower id
+                    if (cellIndex[cell] < node) continue;
+                } else {
+                    int edge = edges;
+                    while (!isNode(cell)) {
+                        cellEdge[cell] = edge;
+                        cellIndex[cell] = steps;
+                        int next = otherOpen(grid, cell, previous, around);
+                        previous = cell;
+                        cell = next;
+                        steps++;
+                    }
+                    // otherOpen reused the neighbour buffer; refill it for the remaining directions
+                    openAround(grid, start, around);
+                }
+                if (edges == from.length) {
+                    from = Arrays.copyOf(from, edges * 2);
+                    to = Arrays.copyOf(to, edges * 2);
+                    length = Arrays.copyOf(length, edges * 2);
+                }
+                from[edges] = node;
+                to[edges] = cellIndex[cell];
+                length[edges] = steps;
+                edges++;
+            }
+
+            // A staircase is a free edge to its landing, recorded from the lower floor
+            if (grid.getAt(start) == MazeGrid.STAIRS_UP && start + floorCells < cellCount && isNode(start + floorCells)) {
+                if (edges == from.length) {
+                    from = Arrays.copyOf(from, edges * 2);
+                    to = Arrays.copyOf(to, edges * 2);
+                    length = Arrays.copyOf(length, edges * 2);
+                }
+                from[edges] = node;
+                to[edges] = cellIndex[start + floorCells];
+                length[edges] = 0;
+                edges++;
+            }
+        }
+        edgeCount = edges;
+        edgeFrom = Arrays.copyOf(from, edges);
+        edgeTo = Arrays.copyOf(to, edges);
+        edgeLength = Arrays.copyOf(length, edges);
+
+        // Pass 3: lay the half-edges out by node
+        offsets = new int[nodeCount + 1];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            offsets[edgeFrom[edge] + 1]++;
+            offsets[edgeTo[edge] + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            offsets[node + 1] += offsets[node];
+        }
+        targets = new int[2 * edgeCount];
+        weights = new int[2 * edgeCount];
+        halfEdgeIds = new int[2 * edgeCount];
+        int[] fill = Arrays.copyOf(offsets, nodeCount);
+        for (int edge = 0; edge < edgeCount; edge++) {
+            int a = fill[edgeFrom[edge]]++;
+            targets[a] = edgeTo[edge];
+            weights[a] = edgeLength[edge];
+            halfEdgeIds[a] = edge;
+            int b = fill[edgeTo[edge]]++;
+            targets[b] = edgeFrom[edge];
+            weights[b] = edgeLength[edge];
+            halfEdgeIds[b] = edge;
+        }
+
+        visited = new int[nodeCount];
+        distance = new int[nodeCount];
+    }
+
+    /**
+     * Gets the length of the shortest path between two open cells.
+     *
+     * @param fromCell The flat index of the start cell
+     * @param toCell The flat index of the target cell
+     * @return The number of steps, or {@link #UNREACHABLE}
+     */
+    public int distance(int fromCell, int toCell) {
+        lastSettled = 0;
+        if (!isOnGraph(fromCell) || !isOnGraph(toCell)) return UNREACHABLE;
+        if (fromCell == toCell) return 0;
+
+        int best = UNREACHABLE;
+        // Both cells inside the same corridor: walking along it is one candidate
+        if (cellEdge[fromCell] >= 0 && cellEdge[fromCell] == cellEdge[toCell]) {
+            best = Math.abs(cellIndex[fromCell] - cellIndex[toCell]);
+        }
+
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            stamp = 0;
+        }
+        int mark = ++stamp;
+        int size = 0;
+        if (cellEdge[fromCell] < 0) {
+            size = relax(size, cellIndex[fromCell], 0, mark);
+        } else {
+            int edge = cellEdge[fromCell];
+            size = relax(size, edgeFrom[edge], cellIndex[fromCell], mark);
+            size = relax(size, edgeTo[edge], edgeLength[edge] - cellIndex[fromCell], mark);
+        }
+
+        // The target is reached through its node, or through either end of its corridor
+        int targetA;
+        int targetB;
+        int extraA;
+        int extraB;
+        if (cellEdge[toCell] < 0) {
+            targetA = targetB = cellIndex[toCell];
+            extraA = extraB = 0;
+        } else {
+            int edge = cellEdge[toCell];
+            targetA = edgeFrom[edge];
+            extraA = cellIndex[toCell];
+            targetB = edgeTo[edge];
+            extraB = edgeLength[edge] - cellIndex[toCell];
+        }
+        boolean settledA = false;
+        boolean settledB = false;
+
+        while (size > 0) {
+            long top = heap[0];
+            size = heapPop(size);
+            int node = (int) top;
+            int d = (int) (top >>> 32);
+            if (d != distance[node]) continue; // Stale entry
+            if (best != UNREACHABLE && d >= best) break;
+            lastSettled++;
+
+            if (node == targetA) {
+                settledA = true;
+                if (best == UNREACHABLE || d + extraA < best) best = d + extraA;
+            }
+            if (node == targetB) {
+                settledB = true;
+                if (best == UNREACHABLE || d + extraB < best) best = d + extraB;
+            }
+            if (settledA && settledB) break;
+
+            for (int i = offsets[node], end = offsets[node + 1]; i < end; i++) {
+                size = relax(size, targets[i], d + weights[i], mark);
+            }
+        }
+        return best;
+    }
+
+    private int relax(int size, int node, int d, int mark) {
+        if (visited[node] == mark && distance[node] <= d) return size;
+        visited[node] = mark;
+        distance[node] = d;
+        if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+        long entry = ((long) d << 32) | node;
+        int i = size;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heap[up] <= entry) break;
+            heap[i] = heap[up];
+            i = up;
+        }
+        heap[i] = entry;
+        return size + 1;
+    }
+
+    private int heapPop(int size) {
+        long last = heap[--size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+            if (heap[child] >= last) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        if (size > 0) heap[i] = last;
+        return size;
+    }
+
+    private boolean isNode(int cell) {
+        return cellEdge[cell] < 0 && cellIndex[cell] >= 0;
+    }
+
+    private boolean isOnGraph(int cell) {
+        return cell >= 0 && cell < cellIndex.length && cellIndex[cell] >= 0;
+    }
+
+    /**
+     * Fills the buffer with the open neighbours of a cell on its own floor.
+     *
+     * @return The number of open neighbours
+     */
+    private int openAround(MazeGrid grid, int cell, int[] around) {
+        int count = 0;
+        // The border is always wall, so an open cell's neighbours are inside the grid
+        if (grid.getAt(cell - cols) != MazeGrid.WALL) around[count++] = cell - cols;
+        if (grid.getAt(cell + cols) != MazeGrid.WALL) around[count++] = cell + cols;
+        if (grid.getAt(cell - 1) != MazeGrid.WALL) around[count++] = cell - 1;
+        if (grid.getAt(cell + 1) != MazeGrid.WALL) around[count++] = cell + 1;
+        return count;
+    }
+
+    /**
+     * Gets the open neighbour of a corridor cell that is not the one the walk came from.
+     */
+    private int otherOpen(MazeGrid grid, int cell, int previous, int[] around) {
+        openAround(grid, cell, around);
+        return around[0] != previous ? around[0] : around[1];
+    }
+
+    /**
+     * Gets the graph edge a corridor cell lies on.
+     *
+     * @param cell The flat cell index
+     * @return The edge id, or -1 for walls and node cells
+     */
+    public int getEdgeOf(int cell) {
+        return cellEdge[cell];
+    }
+
+    /**
+     * Gets the node id of a cell.
+     *
+     * @param cell The flat cell index
+     * @return The node id, or -1 for walls and corridor cells
+     */
+    public int getNodeOf(int cell) {
+        return cellEdge[cell] < 0 ? cellIndex[cell] : -1;
+    }
+
+    // Getters
+    public int getNodeCount() { return nodeCount; }
+    public int getEdgeCount() { return edgeCount; }
+    public int getNodeCell(int node) { return nodeCells[node]; }
+    public int getEdgeFrom(int edge) { return edgeFrom[edge]; }
+    public int getEdgeTo(int edge) { return edgeTo[edge]; }
+    public int getEdgeLength(int edge) { return edgeLength[edge]; }
+    public int getFirstHalfEdge(int node) { return offsets[node]; }
+    public int getEndHalfEdge(int node) { return offsets[node + 1]; }
+    public int getHalfEdgeTarget(int halfEdge) { return targets[halfEdge]; }
+    public int getHalfEdgeWeight(int halfEdge) { return weights[halfEdge]; }
+    public int getHalfEdgeId(int halfEdge) { return halfEdgeIds[halfEdge]; }
+    public int getLastSettledCount() { return lastSettled; }
+}
@@ -0,0 +1,82 @@
+package com.mnour.jfxmaze;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Randomized Kruskal's algorithm over a union-find of rooms.
+ * <p>
+ * Every wall between two rooms is visited once in shuffled order and opened if the rooms
+ * are not yet connected. Produces an even spread of short dead ends.
+ */
+public class KruskalMazeGenerator implements MazeGenerator {
+
+    @Override
+    public String getName() {
+        return "Kruskal";
+    }
+
+    @Override
+    public ConnectivityCertificate generate(MazeGrid maze, RandomGenerator random) {
+        int roomRows = maze.getRoomRows();
+        int roomCols = maze.getRoomCols();
+        int roomCount = maze.getRoomCount();
+
+        // Each candidate wall is packed as room * 2 + direction (0 = east, 1 = south)
+        int[] walls = new int[2 * roomCount];
+        int wallCount = 0;
+        for (int room = 0; room < roomCount; room++) {
+            if (room % roomCols + 1 < roomCols) walls[wallCount++] = room << 1;
+            if (room / roomCols + 1 < roomRows) walls[wallCount++] = (room << 1) | 1;
+        }
+
+        // Fisher-Yates shuffle
+        for (int i = wallCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = walls[i];
+            walls[i] = walls[j];
+            walls[j] = tmp;
+        }
+
+        // Union-find: a negative entry marks a root and holds the negated set size
+        int[] parent = new int[roomCount];
+        Arrays.fill(parent, -1);
+
+        long joins = 0;
+        maze.setAt(maze.roomToCell(0), MazeGrid.PATH);
+        for (int i = 0; i < wallCount; i++) {
+            int a = walls[i] >>> 1;
+            int b = (walls[i] & 1) == 0 ? a + 1 : a + roomCols;
+
+            int rootA = find(parent, a);
+            int rootB = find(parent, b);
+            if (rootA != rootB) {
+                // Union by size
+                if (parent[rootA] > parent[rootB]) {
+                    int tmp = rootA;
+                    rootA = rootB;
+                    rootB = tmp;
+                }
+                parent[rootA] += parent[rootB];
+                parent[rootB] = rootA;
+                maze.openPassage(a, b);
+                joins++;
+            }
+        }
+        return new ConnectivityCertificate(roomCount, joins);
+    }
+
+    /**
+     * Finds the root of a room's set, halving the path on the way.
+     */
+    private static int find(int[] parent, int x) {
+        while (parent[x] >= 0) {
+            int p = parent[x];
+            if (parent[p] >= 0) {
+                parent[x] = parent[p];
+            }
+            x = p;
+        }
+        return x;
+    }
+}
@@ -0,0 +1,227 @@
+package com.mnour.jfxmaze;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Command-line benchmark for maze generation.
+ * <p>
+ * Run with {@code java -cp target/classes com.mnour.jfxmaze.MazeBenchmark [maxSize]}.
+ * Prints the time to build a model for growing maze sizes and the cost per cell,
+ * which should stay roughly flat if generation scales linearly, followed by the
+ * throughput of every registered generator on a fixed-size grid, the speedup of the
+ * parallel tiled generator over a single worker, the cost of carving into off-heap
+ * instead of heap storage, a row-streamed maze that is far too tall to hold in memory
+ * as a grid, the time to resolve each difficulty preset with a parallel seed search, and
+ * the cost of a shortest-path query between random rooms for each path finding algorithm,
+ * and the same queries on the junction graph, with the cells or nodes each one visits.
+ */
+public class MazeBenchmark {
+    private static final int[] SIZES = {251, 501, 1001, 2001, 4001};
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 3;
+    private static final int THROUGHPUT_SIZE = 2001;
+    private static final int[] PARALLEL_SIZES = {2049, 4097};
+    private static final int STORAGE_SIZE = 4097;
+    private static final int STREAM_WIDTH = 1001;
+    private static final int STREAM_HEIGHT = 200_001;
+    private static final int SEARCH_SIZE = MazeModel.DEFAULT_SIZE;
+    private static final int[] PATH_SIZES = {51, 251, 1001, 4001};
+    // Cells visited per algorithm and size, roughly; keeps the largest mazes to a handful of queries
+    private static final long PATH_CELL_BUDGET = 200_000_000L;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Optional largest maze size to measure
+     */
+    public static void main(String[] args) {
+        int maxSize = args.length > 0 ? Integer.parseInt(args[0]) : SIZES[SIZES.length - 1];
+
+        // Let the JIT compile the generator before measuring
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            new MazeModel(SIZES[0], MazeModel.SINGLE_PLAYER, i + 1);
+        }
+
+        System.out.printf("%-10s %12s %12s %14s%n", "Size", "Cells", "Best ms", "ns per cell");
+        for (int size : SIZES) {
+            if (size > maxSize) break;
+            long best = Long.MAX_VALUE;
+            for (int run = 0; run < MEASURED_RUNS; run++) {
+                long start = System.nanoTime();
+                new MazeModel(size, MazeModel.SINGLE_PLAYER, 1000 + run);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            long cells = (long) size * size;
+            System.out.printf("%-10s %12d %12.1f %14.1f%n",
+                    size + "x" + size, cells, best / 1e6, (double) best / cells);
+        }
+
+        System.out.println();
+        System.out.printf("Generator throughput at %dx%d%n", THROUGHPUT_SIZE, THROUGHPUT_SIZE);
+        System.out.printf("%-24s %12s %14s%n", "Algorithm", "Best ms", "Mcells per s");
+        for (MazeGenerator generator : MazeGenerators.getAll()) {
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                generator.generate(MazeGrid.create(SIZES[0], SIZES[0]), new Random(i + 1));
+            }
+            long best = Long.MAX_VALUE;
+            for (int run = 0; run < MEASURED_RUNS; run++) {
+                MazeGrid grid = MazeGrid.create(THROUGHPUT_SIZE, THROUGHPUT_SIZE);
+                long start = System.nanoTime();
+                generator.generate(grid, new Random(1000 + run));
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            double cells = (double) THROUGHPUT_SIZE * THROUGHPUT_SIZE;
+            System.out.printf("%-24s %12.1f %14.1f%n", generator.getName(), best / 1e6, cells / (best / 1e3));
+        }
+
+        // The tiled generator's parallel streams run in whichever pool invokes them
+        System.out.println();
+        System.out.printf("Parallel tiled generation, %d cores%n", Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-10s %14s %14s %10s%n", "Size", "1 worker ms", "All cores ms", "Speedup");
+        ForkJoinPool singleWorker = new ForkJoinPool(1);
+        for (int size : PARALLEL_SIZES) {
+            long sequential = bestOf(() -> singleWorker.submit(() ->
+                    MazeGenerators.PARALLEL_TILED.generate(MazeGrid.create(size, size), new Random(1))).join());
+            long parallel = bestOf(() ->
+                    MazeGenerators.PARALLEL_TILED.generate(MazeGrid.create(size, size), new Random(1)));
+            System.out.printf("%-10s %14.1f %14.1f %9.2fx%n",
+                    size + "x" + size, sequential / 1e6, parallel / 1e6, (double) sequential / parallel);
+        }
+        singleWorker.shutdown();
+
+        // Same generator and seed on both storage backends
+        System.out.println();
+        System.out.printf("Grid storage at %dx%d%n", STORAGE_SIZE, STORAGE_SIZE);
+        long onHeap = bestOf(() -> {
+            MazeGrid grid = new HeapMazeGrid(STORAGE_SIZE, STORAGE_SIZE);
+            MazeGenerators.DEFAULT.generate(grid, new Random(1));
+        });
+        long offHeap = bestOf(() -> {
+            MazeGrid grid = new OffHeapMazeGrid(STORAGE_SIZE, STORAGE_SIZE);
+            MazeGenerators.DEFAULT.generate(grid, new Random(1));
+            grid.release();
+        });
+        System.out.printf("%-10s %12.1f ms%n%-10s %12.1f ms%n", "Heap", onHeap / 1e6, "Off-heap", offHeap / 1e6);
+
+        // Stream a maze row by row, keeping only a running count of open cells
+        long[] openCells = new long[1];
+        long start = System.nanoTime();
+        new EllerMazeGenerator().generateRows(STREAM_HEIGHT, STREAM_WIDTH, new Random(1), (row, cells) -> {
+            for (byte cell : cells) {
+                if (cell != MazeGrid.WALL) openCells[0]++;
+            }
+        });
+        long elapsed = System.nanoTime() - start;
+        System.out.println();
+        System.out.printf("Streamed Eller maze %dx%d: %.1f ms, %d open cells, %.1f Mcells per s%n",
+                STREAM_WIDTH, STREAM_HEIGHT, elapsed / 1e6, openCells[0],
+                (double) STREAM_WIDTH * STREAM_HEIGHT / (elapsed / 1e3));
+
+        // Each preset builds and measures its full set of candidates
+        System.out.println();
+        System.out.printf("Seed search at %dx%d, %d candidates, %d cores%n", SEARCH_SIZE, SEARCH_SIZE,
+                SeedSearch.candidateCount(SEARCH_SIZE), Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-10s %12s %14s%n", "Preset", "Best ms", "Median score");
+        for (SeedSearch.Difficulty difficulty : SeedSearch.Difficulty.values()) {
+            long[] seed = new long[1];
+            long best = bestOf(() -> seed[0] = SeedSearch.findSeed(SEARCH_SIZE, MazeModel.SINGLE_PLAYER,
+                    MazeGenerators.DEFAULT, difficulty, 1));
+            MazeModel model = new MazeModel(SEARCH_SIZE, MazeModel.SINGLE_PLAYER, seed[0]);
+            System.out.printf("%-10s %12.1f %14.3f%n", difficulty.getDisplayName(), best / 1e6,
+                    MazeMetrics.measure(model).getDifficultyScore());
+        }
+
+        // The same random room pairs for every algorithm; the first pass warms up the finder
+        System.out.println();
+        System.out.println("Shortest path between random rooms");
+        System.out.printf("%-10s %8s %16s %16s %16s%n", "Size", "Queries", "BFS ns", "A* ns", "Bidir ns");
+        for (int size : PATH_SIZES) {
+            if (size > maxSize) break;
+            MazeModel model = new MazeModel(size, MazeModel.SINGLE_PLAYER, 1);
+            MazeGrid grid = model.getGrid();
+            PathFinder finder = new PathFinder(grid);
+            int queries = (int) Math.max(10, Math.min(100_000, PATH_CELL_BUDGET / ((long) size * size)));
+            int[] from = new int[queries];
+            int[] to = new int[queries];
+            Random random = new Random(1);
+            for (int i = 0; i < queries; i++) {
+                from[i] = grid.roomToCell(random.nextInt(grid.getRoomCount()));
+                to[i] = grid.roomToCell(random.nextInt(grid.getRoomCount()));
+            }
+            System.out.printf("%-10s %8d", size + "x" + size, queries);
+            for (PathFinder.Algorithm algorithm : PathFinder.Algorithm.values()) {
+                long best = bestOf(() -> {
+                    for (int i = 0; i < queries; i++) {
+                        finder.distance(algorithm, from[i], to[i]);
+                    }
+                });
+                System.out.printf(" %16.0f", (double) best / queries);
+            }
+            System.out.println();
+            model.release();
+        }
+
+        // Same queries on the corridor-free graph, against plain BFS on the grid
+        System.out.println();
+        System.out.println("Junction graph against grid BFS");
+        System.out.printf("%-10s %12s %10s %10s %14s %14s %10s %10s%n", "Size", "Open cells", "Nodes", "Build ms",
+                "BFS visited", "Graph settled", "BFS ns", "Graph ns");
+        for (int size : PATH_SIZES) {
+            if (size > maxSize) break;
+            MazeModel model = new MazeModel(size, MazeModel.SINGLE_PLAYER, 1);
+            MazeGrid grid = model.getGrid();
+            long buildStart = System.nanoTime();
+            JunctionGraph graph = new JunctionGraph(grid, new int[0]);
+            long build = System.nanoTime() - buildStart;
+            PathFinder finder = new PathFinder(grid);
+            int queries = (int) Math.max(10, Math.min(100_000, PATH_CELL_BUDGET / ((long) size * size)));
+            int[] from = new int[queries];
+            int[] to = new int[queries];
+            Random random = new Random(1);
+            for (int i = 0; i < queries; i++) {
+                from[i] = grid.roomToCell(random.nextInt(grid.getRoomCount()));
+                to[i] = grid.roomToCell(random.nextInt(grid.getRoomCount()));
+            }
+            long visitedCells = 0;
+            long settledNodes = 0;
+            for (int i = 0; i < queries; i++) {
+                finder.distance(PathFinder.Algorithm.BFS, from[i], to[i]);
+                visitedCells += finder.getLastVisitedCount();
+                graph.distance(from[i], to[i]);
+                settledNodes += graph.getLastSettledCount();
+            }
+            long bfs = bestOf(() -> {
+                for (int i = 0; i < queries; i++) {
+                    finder.distance(PathFinder.Algorithm.BFS, from[i], to[i]);
+                }
+            });
+            long onGraph = bestOf(() -> {
+                for (int i = 0; i < queries; i++) {
+                    graph.distance(from[i], to[i]);
+                }
+            });
+            long gridCells = 0;
+            for (int cell = 0; cell < grid.getCellCount(); cell++) {
+                if (grid.getAt(cell) != MazeGrid.WALL) gridCells++;
+            }
+            System.out.printf("%-10s %12d %10d %10.1f %14d %14d %10.0f %10.0f%n", size + "x" + size, gridCells,
+                    graph.getNodeCount(), build / 1e6, visitedCells / queries, settledNodes / queries,
+                    (double) bfs / queries, (double) onGraph / queries);
+            model.release();
+        }
+    }
+
+    /**
+     * Runs a task a few times and returns the fastest run in nanoseconds.
+     */
+    private static long bestOf(Runnable task) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
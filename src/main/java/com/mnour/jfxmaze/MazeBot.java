@@ -0,0 +1,315 @@
+package com.mnour.jfxmaze;
+
+import java.util.SplittableRandom;
+
+/**
+ * Plans the moves of a computer player, one step at a time.
+ * <p>
+ * A bot keeps its own copy of its position and only reads the walls of the grid, which do not
+ * change during play, so it can plan on any thread while the game applies its moves elsewhere.
+ * Each {@link Strategy} is a different way of getting through the maze:
+ * <ul>
+ *   <li>{@link Strategy#WALL_FOLLOWER} keeps its right hand on the wall. It only needs its heading,
+ *       and always gets out of a perfect maze, though usually the long way round.</li>
+ *   <li>{@link Strategy#TREMAUX} marks each corridor as it walks it, on a
+ *       {@link JunctionGraph} of the maze, and never enters a corridor marked twice.</li>
+ *   <li>{@link Strategy#OPTIMAL} follows a {@link DistanceField} from the exit.</li>
+ * </ul>
+ * With a non-zero error rate the bot sometimes wanders into a random neighbouring cell and back
+ * before taking its planned step, which leaves the plan itself untouched. Bots play
+ * single-floor mazes only, since a staircase moves the player without a way straight back.
+ */
+public final class MazeBot {
+    /**
+     * The ways a bot can find the exit.
+     */
+    public enum Strategy {
+        WALL_FOLLOWER("Wall Follower"),
+        TREMAUX("Trémaux"),
+        OPTIMAL("Optimal");
+
+        private final String displayName;
+
+        Strategy(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() { return displayName; }
+
+        /**
+         * Looks up a strategy by its display name.
+         *
+         * @param name The display name
+         * @return The strategy, or null if the name is not a strategy
+         */
+        public static Strategy forName(String name) {
+            for (Strategy strategy : values()) {
+                if (strategy.displayName.equals(name)) {
+                    return strategy;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Directions in clockwise order, so turning right is the next one: up, right, down, left
+    private static final int[] DX = {-1, 0, 1, 0};
+    private static final int[] DY = {0, 1, 0, -1};
+    // Right, straight on, left, back, as turns from the heading
+    private static final int[] WALL_FOLLOWER_TURNS = {1, 0, 3, 2};
+
+    private final MazeGrid grid;
+    private final int cols;
+    private final int exitCell;
+    private final Strategy strategy;
+    private final double errorRate;
+    private final SplittableRandom random;
+    private int cell;
+    // A cell to step back to after a wrong step, or -1
+    private int detourReturn = -1;
+
+    // Wall follower: the direction of the last step
+    private int heading = 2;
+
+    // Trémaux: times each corridor was walked, whether each junction was reached, and the corridor being walked
+    private JunctionGraph graph;
+    private byte[] marks;
+    private boolean[] reached;
+    private int walkEdge = -1;
+    private int previousCell = -1;
+
+    // Optimal: steps to the exit from every cell
+    private DistanceField toExit;
+
+    /**
+     * Creates a bot and prepares its strategy; for the Trémaux and optimal strategies this
+     * searches the whole maze once, so call it off the JavaFX thread on large mazes.
+     *
+     * @param grid The single-floor maze
+     * @param startCell The flat index of the bot's starting cell
+     * @param exitCell The flat index of the exit
+     * @param strategy The way the bot finds the exit
+     * @param errorRate The chance of a wrong step before each planned one, from 0 to 1
+     * @param seed The seed for the bot's random choices
+     */
+    public MazeBot(MazeGrid grid, int startCell, int exitCell, Strategy strategy, double errorRate, long seed) {
+        this(grid, startCell, exitCell, null, strategy, errorRate, seed);
+    }
+
+    /**
+     * Creates a bot on a junction graph that was already built for the maze. The Trémaux strategy
+     * only reads the graph's structure and never runs a query on it, so several bots and the
+     * game may share one graph.
+     *
+     * @param grid The single-floor maze
+     * @param startCell The flat index of the bot's starting cell
+     * @param exitCell The flat index of the exit
+     * @param graph The junction graph of the maze, with the start as a node, or null to build one
+     * @param strategy The way the bot finds the exit
+     * @param errorRate The chance of a wrong step before each planned one, from 0 to 1
+     * @param seed The seed for the bot's random choices
+     */
+    public MazeBot(MazeGrid grid, int startCell, int exitCell, JunctionGraph graph, Strategy strategy,
+                   double errorRate, long seed) {
+        this.grid = grid;
+        this.cols = grid.getCols();
+        this.exitCell = exitCell;
+        this.strategy = strategy;
+        this.errorRate = errorRate;
+        this.random = new SplittableRandom(seed);
+        this.cell = startCell;
+
+        if (strategy == Strategy.TREMAUX) {
+            this.graph = graph != null ? graph : new JunctionGraph(grid, new int[]{startCell, exitCell});
+            marks = new byte[this.graph.getEdgeCount()];
+            reached = new boolean[this.graph.getNodeCount()];
+        } else if (strategy == Strategy.OPTIMAL) {
+            toExit = DistanceField.compute(grid, grid.rowOf(exitCell), grid.colOf(exitCell));
+        }
+    }
+
+    /**
+     * Creates a bot that plays one of the players of a game, from that player's start.
+     *
+     * @param model The single-floor maze model
+     * @param playerNum The player number (1 or 2)
+     * @param strategy The way the bot finds the exit
+     * @param errorRate The chance of a wrong step before each planned one, from 0 to 1
+     * @param seed The seed for the bot's random choices
+     * @return The bot
+     */
+    public static MazeBot forPlayer(MazeModel model, int playerNum, Strategy strategy, double errorRate, long seed) {
+        if (model.isEndless() || model.getFloors() != 1) {
+            throw new IllegalArgumentException("Bots play single-floor mazes only");
+        }
+        if (playerNum == 2 && model.getGameMode() != MazeModel.DUAL_PLAYER) {
+            throw new IllegalArgumentException("Player 2 only plays in dual-player mode");
+        }
+        MazeGrid grid = model.getGrid();
+        int start = playerNum == 1 ? grid.index(model.getPlayerX(), model.getPlayerY())
+                : grid.index(model.getPlayer2X(), model.getPlayer2Y());
+        // The model's graph has both players' starts as nodes, so both bots of a game can share it
+        JunctionGraph graph = strategy == Strategy.TREMAUX ? model.getJunctionGraph() : null;
+        return new MazeBot(grid, start, grid.index(model.getExitX(), model.getExitY()), graph, strategy, errorRate, seed);
+    }
+
+    /**
+     * Plans the next move and moves the bot's own copy of its position.
+     *
+     * @return The direction of the move, for {@link #dx} and {@link #dy}, or -1 once the bot is on the exit
+     */
+    public int nextMove() {
+        if (cell == exitCell) return -1;
+
+        int next;
+        if (detourReturn >= 0) {
+            next = detourReturn;
+            detourReturn = -1;
+        } else if (errorRate > 0 && random.nextDouble() < errorRate) {
+            next = randomNeighbor(cell);
+            detourReturn = cell;
+        } else {
+            next = switch (strategy) {
+                case WALL_FOLLOWER -> followWall();
+                case TREMAUX -> tremaux();
+                case OPTIMAL -> toExit.stepTowardSource(grid, cell, grid.getRows());
+            };
+        }
+
+        int direction = directionTo(next);
+        cell = next;
+        return direction;
+    }
+
+    /**
+     * Turns right if it can, otherwise goes straight on, left, or back.
+     */
+    private int followWall() {
+        for (int turn : WALL_FOLLOWER_TURNS) {
+            int direction = (heading + turn) & 3;
+            int next = step(cell, direction);
+            if (grid.getAt(next) != MazeGrid.WALL) {
+                heading = direction;
+                return next;
+            }
+        }
+        return cell;
+    }
+
+    /**
+     * Walks on along the current corridor, or picks the next one at a junction by its marks.
+     */
+    private int tremaux() {
+        int node = graph.getNodeOf(cell);
+        if (node < 0) {
+            // Inside a corridor there is only one way on
+            return otherNeighbor(cell, previousCell);
+        }
+
+        int arrivedBy = walkEdge;
+        boolean seenBefore = reached[node];
+        reached[node] = true;
+
+        int leaveBy;
+        if (arrivedBy >= 0 && seenBefore && marks[arrivedBy] < 2) {
+            // Back at a junction by a new corridor: turn around
+            leaveBy = arrivedBy;
+        } else {
+            leaveBy = leastMarked(node);
+        }
+        if (leaveBy < 0) return cell; // Nowhere left to go; cannot happen in a connected maze
+
+        marks[leaveBy]++;
+        walkEdge = leaveBy;
+        previousCell = cell;
+        return firstCellOf(leaveBy, node);
+    }
+
+    /**
+     * Picks a corridor from a junction with the fewest marks, below two, breaking ties at random.
+     *
+     * @return The edge id, or -1 if every corridor is marked twice
+     */
+    private int leastMarked(int node) {
+        int best = -1;
+        int ties = 0;
+        for (int half = graph.getFirstHalfEdge(node); half < graph.getEndHalfEdge(node); half++) {
+            int edge = graph.getHalfEdgeId(half);
+            if (marks[edge] >= 2) continue;
+            if (best < 0 || marks[edge] < marks[best]) {
+                best = edge;
+                ties = 1;
+            } else if (marks[edge] == marks[best] && edge != best && random.nextInt(++ties) == 0) {
+                best = edge;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the first cell of a corridor as seen from one of its ends.
+     */
+    private int firstCellOf(int edge, int node) {
+        int other = graph.getEdgeFrom(edge) == node ? graph.getEdgeTo(edge) : graph.getEdgeFrom(edge);
+        for (int direction = 0; direction < 4; direction++) {
+            int next = step(cell, direction);
+            if (grid.getAt(next) == MazeGrid.WALL) continue;
+            if (graph.getEdgeOf(next) == edge || (graph.getEdgeLength(edge) == 1 && graph.getNodeOf(next) == other)) {
+                return next;
+            }
+        }
+        return cell;
+    }
+
+    private int otherNeighbor(int from, int previous) {
+        for (int direction = 0; direction < 4; direction++) {
+            int next = step(from, direction);
+            if (next != previous && grid.getAt(next) != MazeGrid.WALL) {
+                previousCell = from;
+                return next;
+            }
+        }
+        return previous;
+    }
+
+    private int randomNeighbor(int from) {
+        int choice = -1;
+        int seen = 0;
+        for (int direction = 0; direction < 4; direction++) {
+            int next = step(from, direction);
+            if (grid.getAt(next) != MazeGrid.WALL && random.nextInt(++seen) == 0) {
+                choice = next;
+            }
+        }
+        return choice;
+    }
+
+    private int step(int from, int direction) {
+        return from + DX[direction] * cols + DY[direction];
+    }
+
+    private int directionTo(int next) {
+        for (int direction = 0; direction < 4; direction++) {
+            if (step(cell, direction) == next) return direction;
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the row change of a move direction.
+     */
+    public static int dx(int direction) {
+        return DX[direction];
+    }
+
+    /**
+     * Gets the column change of a move direction.
+     */
+    public static int dy(int direction) {
+        return DY[direction];
+    }
+
+    // Getters
+    public int getCell() { return cell; }
+    public Strategy getStrategy() { return strategy; }
+}
@@ -0,0 +1,330 @@
+package com.mnour.jfxmaze;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps generated mazes in a local binary file so replayed seeds skip the carving.
+ * <p>
+ * The file starts with a fixed-size index of {@link #INDEX_SLOTS} entries, each keyed by seed,
+ * size, game mode, and generator name and version, followed by a data region holding the packed
+ * words of each {@link MazeGrid}. Both parts are memory-mapped, so a lookup is a scan of the
+ * mapped index and a load is a bulk copy out of the page cache. When the data region or the index
+ * is full, the least recently used mazes are evicted until the new one fits.
+ * <p>
+ * Only mazes with the default exit difficulty and bonus density are stored, right after
+ * generation and before any player has moved. The game stores only seeds that are played by
+ * number, such as a typed seed or a restart, and builds mazes for new random seeds with
+ * {@link #getOrGenerate}, so one-off seeds never push out mazes worth replaying. If the file
+ * cannot be opened or is locked by another instance of the game, the cache quietly stays empty.
+ */
+public final class MazeCache {
+    public static final String CACHE_FILE = "jfxmaze_maze_cache.bin";
+    public static final long DEFAULT_CAPACITY = 256L * 1024 * 1024;
+
+    private static final int MAGIC = 0x4A464D43; // "JFMC"
+    private static final int FORMAT_VERSION = 1;
+    private static final int INDEX_SLOTS = 128;
+    // Fixed rather than native, so the file stays valid on any machine; bulk copies are plain memory copies on x86 and ARM
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    // Header: magic, format version, use clock
+    private static final int HEADER_BYTES = 16;
+    private static final int CLOCK_OFFSET = 8;
+
+    // Index entry layout
+    private static final int ENTRY_BYTES = 80;
+    private static final int SEED = 0;
+    private static final int GENERATOR_KEY = 8;
+    private static final int SIZE = 16;
+    private static final int MODE = 20;
+    private static final int DATA_OFFSET = 24;
+    private static final int DATA_LENGTH = 32;
+    private static final int LAST_USED = 40;
+    private static final int EXIT_X = 48;
+    private static final int EXIT_Y = 52;
+    private static final int TOTAL_DOTS = 56;
+    private static final int IN_USE = 60;
+    private static final int ROOM_COUNT = 64;
+    private static final int TREE_JOINS = 72;
+
+    // The data region starts on a page boundary after the index
+    private static final long DATA_START = (HEADER_BYTES + (long) INDEX_SLOTS * ENTRY_BYTES + 4095) & ~4095L;
+
+    private final long capacity;
+    private FileChannel channel;
+    private FileLock lock;
+    private MappedByteBuffer index;
+
+    /**
+     * Opens the cache file in the working directory with the default capacity.
+     */
+    public MazeCache() {
+        this(Paths.get(CACHE_FILE), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Opens or creates a cache file.
+     *
+     * @param file The cache file
+     * @param capacity The most bytes of maze data to keep
+     */
+    public MazeCache(Path file, long capacity) {
+        this.capacity = capacity;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                System.err.println("Maze cache " + file + " is in use by another instance; caching disabled.");
+                channel.close();
+                channel = null;
+                return;
+            }
+            index = channel.map(FileChannel.MapMode.READ_WRITE, 0, DATA_START);
+            index.order(ORDER);
+            if (index.getInt(0) != MAGIC || index.getInt(4) != FORMAT_VERSION) {
+                for (int i = 0; i < DATA_START; i += 8) {
+                    index.putLong(i, 0L);
+                }
+                index.putInt(0, MAGIC);
+                index.putInt(4, FORMAT_VERSION);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not open maze cache: " + e.getMessage());
+            close();
+        }
+    }
+
+    /**
+     * Gets a maze from the cache, or generates and stores it.
+     *
+     * @param mazeSize The size of the maze
+     * @param gameMode The game mode
+     * @param seed The random seed
+     * @param generator The algorithm that carves the maze
+     * @return The maze model, ready to play
+     */
+    public MazeModel getOrCreate(int mazeSize, int gameMode, long seed, MazeGenerator generator) {
+        MazeModel model = load(mazeSize, gameMode, seed, generator);
+        if (model == null) {
+            model = new MazeModel(mazeSize, gameMode, seed, generator);
+            store(model);
+        }
+        return model;
+    }
+
+    /**
+     * Gets a maze from the cache, or generates it without storing it.
+     *
+     * @param mazeSize The size of the maze
+     * @param gameMode The game mode
+     * @param seed The random seed
+     * @param generator The algorithm that carves the maze
+     * @return The maze model, ready to play
+     */
+    public MazeModel getOrGenerate(int mazeSize, int gameMode, long seed, MazeGenerator generator) {
+        MazeModel model = load(mazeSize, gameMode, seed, generator);
+        return model != null ? model : new MazeModel(mazeSize, gameMode, seed, generator);
+    }
+
+    /**
+     * Loads a stored maze.
+     *
+     * @return The maze model, or null if it is not in the cache
+     */
+    public synchronized MazeModel load(int mazeSize, int gameMode, long seed, MazeGenerator generator) {
+        if (index == null) return null;
+        int slot = findSlot(mazeSize, gameMode, seed, generatorKey(generator));
+        if (slot < 0) return null;
+
+        int entry = entryOffset(slot);
+        try {
+            MazeGrid grid = MazeGrid.create(mazeSize, mazeSize);
+            long offset = index.getLong(entry + DATA_OFFSET);
+            long length = index.getLong(entry + DATA_LENGTH);
+            if (length != (long) grid.getWordCount() * Long.BYTES || offset < DATA_START || offset + length > channel.size()) {
+                throw new IOException("entry for seed " + seed + " points outside the data region");
+            }
+            grid.readWords(mapData(FileChannel.MapMode.READ_ONLY, offset, length));
+            touch(entry);
+            long roomCount = index.getLong(entry + ROOM_COUNT);
+            ConnectivityCertificate certificate = roomCount < 0 ? null
+                    : new ConnectivityCertificate((int) roomCount, index.getLong(entry + TREE_JOINS));
+            return new MazeModel(mazeSize, gameMode, seed, generator, grid,
+                    index.getInt(entry + EXIT_X), index.getInt(entry + EXIT_Y), index.getInt(entry + TOTAL_DOTS), certificate);
+        } catch (IOException e) {
+            System.err.println("Could not read cached maze: " + e.getMessage());
+            index.putInt(entry + IN_USE, 0);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a freshly generated maze, evicting the least recently used ones if needed.
+     * Models with a custom exit difficulty or bonus density are not stored.
+     *
+     * @param model The maze model, before any player has moved
+     */
+    public synchronized void store(MazeModel model) {
+        if (index == null
+                || model.getExitDifficulty() != MazeModel.DEFAULT_EXIT_DIFFICULTY
+                || model.getBonusDensity() != MazeModel.CLASSIC_BONUS_DENSITY) {
+            return;
+        }
+        MazeGrid grid = model.getGrid();
+        long length = (long) grid.getWordCount() * Long.BYTES;
+        if (length > capacity) return;
+
+        long generatorKey = generatorKey(model.getGenerator());
+        int existing = findSlot(model.getMazeSize(), model.getGameMode(), model.getSeed(), generatorKey);
+        if (existing >= 0) {
+            touch(entryOffset(existing));
+            return;
+        }
+
+        int slot = findFreeSlot();
+        long offset;
+        while (slot < 0 || (offset = findGap(length)) < 0) {
+            evictLeastRecentlyUsed();
+            if (slot < 0) slot = findFreeSlot();
+        }
+
+        int entry = entryOffset(slot);
+        try {
+            grid.writeWords(mapData(FileChannel.MapMode.READ_WRITE, offset, length));
+        } catch (IOException e) {
+            System.err.println("Could not write cached maze: " + e.getMessage());
+            return;
+        }
+        ConnectivityCertificate certificate = model.getCertificate();
+        index.putLong(entry + SEED, model.getSeed());
+        index.putLong(entry + GENERATOR_KEY, generatorKey);
+        index.putInt(entry + SIZE, model.getMazeSize());
+        index.putInt(entry + MODE, model.getGameMode());
+        index.putLong(entry + DATA_OFFSET, offset);
+        index.putLong(entry + DATA_LENGTH, length);
+        index.putInt(entry + EXIT_X, model.getExitX());
+        index.putInt(entry + EXIT_Y, model.getExitY());
+        index.putInt(entry + TOTAL_DOTS, model.getTotalDots());
+        index.putLong(entry + ROOM_COUNT, certificate != null ? certificate.getRoomCount() : -1L);
+        index.putLong(entry + TREE_JOINS, certificate != null ? certificate.getTreeJoins() : -1L);
+        touch(entry);
+        // Marked in use last, so an interrupted write leaves the slot free
+        index.putInt(entry + IN_USE, 1);
+    }
+
+    /**
+     * Releases the file lock and closes the cache file.
+     */
+    public synchronized void close() {
+        index = null;
+        try {
+            if (lock != null) lock.release();
+            if (channel != null) channel.close();
+        } catch (IOException e) {
+            System.err.println("Could not close maze cache: " + e.getMessage());
+        }
+        lock = null;
+        channel = null;
+    }
+
+    private int findSlot(int mazeSize, int gameMode, long seed, long generatorKey) {
+        for (int slot = 0; slot < INDEX_SLOTS; slot++) {
+            int entry = entryOffset(slot);
+            if (index.getInt(entry + IN_USE) != 0
+                    && index.getLong(entry + SEED) == seed
+                    && index.getLong(entry + GENERATOR_KEY) == generatorKey
+                    && index.getInt(entry + SIZE) == mazeSize
+                    && index.getInt(entry + MODE) == gameMode) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int findFreeSlot() {
+        for (int slot = 0; slot < INDEX_SLOTS; slot++) {
+            if (index.getInt(entryOffset(slot) + IN_USE) == 0) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the first gap between stored mazes that can hold the given number of bytes.
+     *
+     * @return The file offset of the gap, or -1 if none is large enough
+     */
+    private long findGap(long length) {
+        List<long[]> used = new ArrayList<>();
+        for (int slot = 0; slot < INDEX_SLOTS; slot++) {
+            int entry = entryOffset(slot);
+            if (index.getInt(entry + IN_USE) != 0) {
+                used.add(new long[]{index.getLong(entry + DATA_OFFSET), index.getLong(entry + DATA_LENGTH)});
+            }
+        }
+        used.sort((a, b) -> Long.compare(a[0], b[0]));
+
+        long candidate = DATA_START;
+        for (long[] range : used) {
+            if (range[0] - candidate >= length) break;
+            candidate = Math.max(candidate, range[0] + range[1]);
+        }
+        return candidate + length <= DATA_START + capacity ? candidate : -1;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        int oldest = -1;
+        long oldestUse = Long.MAX_VALUE;
+        for (int slot = 0; slot < INDEX_SLOTS; slot++) {
+            int entry = entryOffset(slot);
+            if (index.getInt(entry + IN_USE) != 0 && index.getLong(entry + LAST_USED) < oldestUse) {
+                oldestUse = index.getLong(entry + LAST_USED);
+                oldest = slot;
+            }
+        }
+        if (oldest < 0) {
+            // Nothing left to evict; only possible if the maze alone exceeds the capacity
+            throw new IllegalStateException("Maze cache capacity " + capacity + " cannot hold the maze");
+        }
+        index.putInt(entryOffset(oldest) + IN_USE, 0);
+    }
+
+    private void touch(int entry) {
+        long clock = index.getLong(CLOCK_OFFSET) + 1;
+        index.putLong(CLOCK_OFFSET, clock);
+        index.putLong(entry + LAST_USED, clock);
+    }
+
+    private LongBuffer mapData(FileChannel.MapMode mode, long offset, long length) throws IOException {
+        MappedByteBuffer data = channel.map(mode, offset, length);
+        data.order(ORDER);
+        return data.asLongBuffer();
+    }
+
+    private static int entryOffset(int slot) {
+        return HEADER_BYTES + slot * ENTRY_BYTES;
+    }
+
+    /**
+     * Combines the generator name and version, so a changed algorithm never matches old entries.
+     */
+    private static long generatorKey(MazeGenerator generator) {
+        return ((long) generator.getName().hashCode() << 32) | (generator.getVersion() & 0xFFFFFFFFL);
+    }
+}
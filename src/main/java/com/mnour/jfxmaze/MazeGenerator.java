@@ -0,0 +1,44 @@
+package com.mnour.jfxmaze;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Algorithm that carves a maze into a grid.
+ * <p>
+ * Implementations receive an all-wall {@link MazeGrid} and open passages between its rooms
+ * (the cells with an odd row and column), leaving the outer border intact. The result must be
+ * a perfect maze: every room reachable from every other one along exactly one path. All
+ * randomness has to come from the supplied generator so that a seed always yields the same maze.
+ * <p>
+ * While carving, implementations count the passages that join a room to a part of the maze it
+ * was not connected to yet, and return them as a {@link ConnectivityCertificate}, so callers can
+ * trust the maze to be solvable without searching it.
+ */
+public interface MazeGenerator {
+
+    /**
+     * Gets the display name of the algorithm, which is also recorded with the seed in score records.
+     *
+     * @return The algorithm name
+     */
+    String getName();
+
+    /**
+     * Gets the version of the algorithm's output. Stored mazes are keyed by name and version,
+     * so implementations bump it whenever a seed would carve a different maze than before.
+     *
+     * @return The output version
+     */
+    default int getVersion() {
+        return 1;
+    }
+
+    /**
+     * Carves a perfect maze into the grid.
+     *
+     * @param grid The all-wall grid to carve into
+     * @param random The source of randomness, seeded by the caller
+     * @return The connectivity certificate collected while carving
+     */
+    ConnectivityCertificate generate(MazeGrid grid, RandomGenerator random);
+}
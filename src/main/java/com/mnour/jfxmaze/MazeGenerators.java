@@ -0,0 +1,51 @@
+package com.mnour.jfxmaze;
+
+import java.util.List;
+
+/**
+ * Registry of the available maze generation algorithms.
+ */
+public final class MazeGenerators {
+    public static final MazeGenerator PRIM = new PrimMazeGenerator(false);
+    public static final MazeGenerator CLASSIC_PRIM = new PrimMazeGenerator(true);
+    public static final MazeGenerator RECURSIVE_BACKTRACKER = new BacktrackerMazeGenerator();
+    public static final MazeGenerator KRUSKAL = new KruskalMazeGenerator();
+    public static final MazeGenerator WILSON = new WilsonMazeGenerator();
+    public static final MazeGenerator GROWING_TREE = new GrowingTreeMazeGenerator();
+    public static final MazeGenerator BINARY_TREE = new BinaryTreeMazeGenerator();
+    public static final MazeGenerator SIDEWINDER = new SidewinderMazeGenerator();
+    public static final MazeGenerator ELLER = new EllerMazeGenerator();
+    public static final MazeGenerator PARALLEL_TILED = new ParallelTiledMazeGenerator();
+
+    public static final MazeGenerator DEFAULT = PRIM;
+
+    private static final List<MazeGenerator> ALL = List.of(
+            PRIM, RECURSIVE_BACKTRACKER, KRUSKAL, WILSON, GROWING_TREE, BINARY_TREE, SIDEWINDER, ELLER, PARALLEL_TILED, CLASSIC_PRIM);
+
+    private MazeGenerators() {
+    }
+
+    /**
+     * Gets all registered generators, in the order they are offered to the player.
+     *
+     * @return An unmodifiable list of generators
+     */
+    public static List<MazeGenerator> getAll() {
+        return ALL;
+    }
+
+    /**
+     * Looks up a generator by its display name.
+     *
+     * @param name The name recorded with a seed
+     * @return The matching generator, or {@link #DEFAULT} if the name is unknown or null
+     */
+    public static MazeGenerator forName(String name) {
+        for (MazeGenerator generator : ALL) {
+            if (generator.getName().equals(name)) {
+                return generator;
+            }
+        }
+        return DEFAULT;
+    }
+}
@@ -0,0 +1,230 @@
+package com.mnour.jfxmaze;
+
+import java.nio.LongBuffer;
+
+/**
+ * Flat, bit-packed storage for the cells of a maze.
+ * <p>
+ * Every cell takes {@link #BITS_PER_CELL} bits of a single run of 64-bit words, laid out row by
+ * row, so a full scan walks memory sequentially and no per-row arrays are allocated. A freshly
+ * created grid is all walls, because {@link #WALL} is encoded as zero.
+ * <p>
+ * The words live either in a {@code long[]} on the Java heap ({@link HeapMazeGrid}) or in native
+ * memory ({@link OffHeapMazeGrid}). Generators, searches and the renderer only use the cell
+ * access methods here, so they work on both. {@link #create} keeps small grids on the heap and
+ * moves very large ones off it, where they do not add to garbage collection pauses.
+ */
+public abstract class MazeGrid {
+    // Cell types
+    public static final int WALL = 0;
+    public static final int PATH = 1;
+    public static final int BONUS = 2;
+    public static final int EXIT = 3;
+    // Stairs join a cell to the cell at the same position one floor up or down; see MazeModel
+    public static final int STAIRS_UP = 4;
+    public static final int STAIRS_DOWN = 5;
+
+    // Packing layout: 4 bits leave room for more cell types without changing the format
+    public static final int BITS_PER_CELL = 4;
+    public static final int CELLS_PER_WORD = Long.SIZE / BITS_PER_CELL;
+    static final int WORD_SHIFT = 4; // log2(CELLS_PER_WORD)
+    static final int CELL_SHIFT = 2; // log2(BITS_PER_CELL)
+    static final long CELL_MASK = (1L << BITS_PER_CELL) - 1;
+
+    // Grids with at least this many cells (a 4096 x 4096 maze) are kept off the heap by create()
+    public static final long OFF_HEAP_MIN_CELLS = 1L << 24;
+
+    private final int rows;
+    private final int cols;
+
+    /**
+     * Checks and stores the dimensions of a grid.
+     *
+     * @param rows The number of rows
+     * @param cols The number of columns
+     */
+    MazeGrid(int rows, int cols) {
+        if (rows <= 0 || cols <= 0 || (long) rows * cols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid grid dimensions: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * Creates an all-wall grid, on the heap or off it depending on its size.
+     *
+     * @param rows The number of rows
+     * @param cols The number of columns
+     * @return The grid; call {@link #release()} once it is no longer used
+     */
+    public static MazeGrid create(int rows, int cols) {
+        return (long) rows * cols >= OFF_HEAP_MIN_CELLS ? new OffHeapMazeGrid(rows, cols) : new HeapMazeGrid(rows, cols);
+    }
+
+    /**
+     * Gets the number of 64-bit words that hold the given number of cells.
+     */
+    static int wordCount(int rows, int cols) {
+        return (int) (((long) rows * cols + CELLS_PER_WORD - 1) >>> WORD_SHIFT);
+    }
+
+    /**
+     * Gets the type of the cell at the given position.
+     *
+     * @param row The row
+     * @param col The column
+     * @return The cell type
+     */
+    public int get(int row, int col) {
+        return getAt(row * cols + col);
+    }
+
+    /**
+     * Sets the type of the cell at the given position.
+     *
+     * @param row The row
+     * @param col The column
+     * @param type The new cell type
+     */
+    public void set(int row, int col, int type) {
+        setAt(row * cols + col, type);
+    }
+
+    /**
+     * Gets the type of the cell at the given flat index.
+     *
+     * @param index The flat index ({@code row * cols + col})
+     * @return The cell type
+     */
+    public abstract int getAt(int index);
+
+    /**
+     * Sets the type of the cell at the given flat index.
+     *
+     * @param index The flat index ({@code row * cols + col})
+     * @param type The new cell type
+     */
+    public abstract void setAt(int index, int type);
+
+    /**
+     * Checks whether the given position lies inside the grid and is not a wall.
+     *
+     * @param row The row
+     * @param col The column
+     * @return true if the cell can be walked on, false otherwise
+     */
+    public boolean isOpen(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols && get(row, col) != WALL;
+    }
+
+    /**
+     * Converts a position into a flat index.
+     */
+    public int index(int row, int col) {
+        return row * cols + col;
+    }
+
+    /**
+     * Gets the row of a flat index.
+     */
+    public int rowOf(int index) {
+        return index / cols;
+    }
+
+    /**
+     * Gets the column of a flat index.
+     */
+    public int colOf(int index) {
+        return index % cols;
+    }
+
+    /**
+     * Gets the flat cell index of a room.
+     * <p>
+     * Rooms are the cells with an odd row and column; generators carve passages between
+     * neighbouring rooms and never touch the outer border. Room indices run row by row
+     * over a {@link #getRoomRows()} x {@link #getRoomCols()} lattice.
+     *
+     * @param room The room index
+     * @return The flat cell index
+     */
+    public int roomToCell(int room) {
+        int roomCols = getRoomCols();
+        return (2 * (room / roomCols) + 1) * cols + 2 * (room % roomCols) + 1;
+    }
+
+    /**
+     * Opens the passage between two adjacent rooms, carving both rooms and the wall between them.
+     *
+     * @param roomA The first room index
+     * @param roomB The second room index, horizontally or vertically adjacent to the first
+     */
+    public void openPassage(int roomA, int roomB) {
+        int cellA = roomToCell(roomA);
+        int cellB = roomToCell(roomB);
+        setAt(cellA, PATH);
+        setAt(cellB, PATH);
+        // The wall between two cells in the same row or column sits at the midpoint index
+        setAt((cellA + cellB) >>> 1, PATH);
+    }
+
+    /**
+     * Copies the packed cells into a buffer, one word per {@link #CELLS_PER_WORD} cells.
+     *
+     * @param buffer The buffer to write {@link #getWordCount()} words to
+     */
+    public abstract void writeWords(LongBuffer buffer);
+
+    /**
+     * Replaces the packed cells with words read from a buffer, as written by {@link #writeWords}.
+     *
+     * @param buffer The buffer to read {@link #getWordCount()} words from
+     */
+    public abstract void readWords(LongBuffer buffer);
+
+    /**
+     * Frees the memory behind the grid. Off-heap grids give their native memory back at once
+     * and must not be used afterwards; heap grids are left to the garbage collector.
+     */
+    public void release() {
+    }
+
+    /**
+     * Converts a cell type to the character used in text dumps of the maze.
+     *
+     * @param type The cell type
+     * @return The matching {@code *_CHAR} constant of {@link MazeModel}
+     */
+    public static char toChar(int type) {
+        switch (type) {
+            case PATH: return MazeModel.PATH_CHAR;
+            case BONUS: return MazeModel.BONUS_CHAR;
+            case EXIT: return MazeModel.EXIT_CHAR;
+            case STAIRS_UP: return MazeModel.STAIRS_UP_CHAR;
+            case STAIRS_DOWN: return MazeModel.STAIRS_DOWN_CHAR;
+            default: return MazeModel.WALL_CHAR;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(rows * (cols + 1));
+        for (int i = 0, index = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++, index++) {
+                sb.append(toChar(getAt(index)));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    // Getters
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int getCellCount() { return rows * cols; }
+    public int getWordCount() { return wordCount(rows, cols); }
+    public int getRoomRows() { return (rows - 1) / 2; }
+    public int getRoomCols() { return (cols - 1) / 2; }
+    public int getRoomCount() { return getRoomRows() * getRoomCols(); }
+}
@@ -0,0 +1,107 @@
+package com.mnour.jfxmaze;
+
+/**
+ * Shape measurements of a generated maze, used to judge how hard it is.
+ * <p>
+ * Everything except the solution length comes from one row-major pass over the packed grid that
+ * counts the open neighbours of each open cell: cells with one are dead ends, cells with three or
+ * more are junctions, and cells with exactly two are corridor cells. In a perfect maze the dead
+ * ends and junctions split the paths into corridors, and the number of corridors is half the sum
+ * of their degrees, so the average corridor length needs no second pass.
+ */
+public final class MazeMetrics {
+    private final int solutionLength;
+    private final int openCells;
+    private final int deadEnds;
+    private final int junctions;
+    private final double averageCorridorLength;
+
+    private MazeMetrics(int solutionLength, int openCells, int deadEnds, int junctions, double averageCorridorLength) {
+        this.solutionLength = solutionLength;
+        this.openCells = openCells;
+        this.deadEnds = deadEnds;
+        this.junctions = junctions;
+        this.averageCorridorLength = averageCorridorLength;
+    }
+
+    /**
+     * Measures a finished single-floor maze.
+     *
+     * @param model The maze model, with its exit placed
+     * @return The measurements
+     */
+    public static MazeMetrics measure(MazeModel model) {
+        return measure(model.getGrid(), model.getExitDistance());
+    }
+
+    /**
+     * Measures a maze grid.
+     *
+     * @param grid The maze
+     * @param solutionLength The number of steps from the start to the exit
+     * @return The measurements
+     */
+    public static MazeMetrics measure(MazeGrid grid, int solutionLength) {
+        int rows = grid.getRows();
+        int cols = grid.getCols();
+        int openCells = 0;
+        int deadEnds = 0;
+        int junctions = 0;
+        int corridorCells = 0;
+        long nodeDegrees = 0;
+
+        // The border is always wall, so the inner cells never look outside the grid
+        for (int row = 1; row < rows - 1; row++) {
+            int cell = grid.index(row, 1);
+            for (int col = 1; col < cols - 1; col++, cell++) {
+                if (grid.getAt(cell) == MazeGrid.WALL) continue;
+                openCells++;
+                int degree = (grid.getAt(cell - cols) != MazeGrid.WALL ? 1 : 0)
+                        + (grid.getAt(cell + cols) != MazeGrid.WALL ? 1 : 0)
+                        + (grid.getAt(cell - 1) != MazeGrid.WALL ? 1 : 0)
+                        + (grid.getAt(cell + 1) != MazeGrid.WALL ? 1 : 0);
+                if (degree == 2) {
+                    corridorCells++;
+                } else {
+                    if (degree == 1) deadEnds++;
+                    else if (degree > 2) junctions++;
+                    nodeDegrees += degree;
+                }
+            }
+        }
+
+        long corridors = nodeDegrees / 2;
+        double averageCorridorLength = corridors > 0 ? (double) corridorCells / corridors : corridorCells;
+        return new MazeMetrics(solutionLength, openCells, deadEnds, junctions, averageCorridorLength);
+    }
+
+    /**
+     * Rates the maze from 0 (easy) to 1 (hard).
+     * <p>
+     * A long solution is harder to find, and so is a maze with many dead ends and junctions to
+     * get lost in; long featureless corridors make it easier. Each term is relative to the
+     * number of open cells, so the rating does not depend on the maze size.
+     *
+     * @return The difficulty rating
+     */
+    public double getDifficultyScore() {
+        if (openCells == 0) return 0.0;
+        double pathShare = Math.min(1.0, (double) solutionLength / openCells);
+        double choiceShare = Math.min(1.0, 4.0 * (deadEnds + junctions) / openCells);
+        double corridorEase = 1.0 / (1.0 + averageCorridorLength);
+        return (pathShare + choiceShare + corridorEase) / 3.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("solution=%d open=%d deadEnds=%d junctions=%d corridor=%.2f score=%.3f",
+                solutionLength, openCells, deadEnds, junctions, averageCorridorLength, getDifficultyScore());
+    }
+
+    // Getters
+    public int getSolutionLength() { return solutionLength; }
+    public int getOpenCells() { return openCells; }
+    public int getDeadEnds() { return deadEnds; }
+    public int getJunctions() { return junctions; }
+    public double getAverageCorridorLength() { return averageCorridorLength; }
+}
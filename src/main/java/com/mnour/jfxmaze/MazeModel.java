@@ -3,6 +3,7 @@ package com.mnour.jfxmaze;
 import javafx.scene.image.Image;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * Encapsulates the maze data structure, generation algorithm,
@@ -12,21 +13,40 @@ public class MazeModel {
     // Constants
     public static final int SINGLE_PLAYER = 1;
     public static final int DUAL_PLAYER = 2;
+    // Single player in an unbounded, chunked maze; the maze size is the size of the view around the player
+    public static final int ENDLESS = 3;
 
     public static final char WALL_CHAR = '#';
     public static final char PATH_CHAR = ' ';
     public static final char EXIT_CHAR = 'E';
     public static final char BONUS_CHAR = '.';
+    public static final char STAIRS_UP_CHAR = '<';
+    public static final char STAIRS_DOWN_CHAR = '>';
 
     public static final int BONUS_POINTS = 10;
 
     public static final int DEFAULT_SIZE = 21;
     public static final int MIN_SIZE = 5;
+    // Largest size offered on the game screen; the model itself accepts up to MAX_GRID_SIZE
     public static final int MAX_SIZE = 51;
+    public static final int MAX_GRID_SIZE = 46339;
+    public static final int MAX_FLOORS = 5;
+    // How far a player sees down a straight corridor in a fog-of-war game
+    public static final int FOG_RADIUS = 8;
+    // Moved-over cells kept between frames before the screen is asked to repaint everything
+    private static final int DIRTY_CAPACITY = 4096;
+
+    // Exit distance as a fraction of the longest path from the start; 1.0 puts the exit as far away as possible
+    public static final double DEFAULT_EXIT_DIFFICULTY = 1.0;
+
+    // Share of the free cells that get a bonus dot; a negative density keeps the classic count of mazeSize / 3
+    public static final double CLASSIC_BONUS_DENSITY = -1.0;
+    public static final double FULL_BONUS_DENSITY = 1.0;
 
     // Game state variables
-    private char[][] maze;
+    private MazeGrid maze;
     private int mazeSize;
+    private int floors = 1;
     private long seed;
     private int exitX, exitY;
     private int totalDots = 0;
@@ -36,105 +56,306 @@ public class MazeModel {
     private int player1Moves = 0;
 
     private int player2X, player2Y;
+    // Player 2's starting cell, kept as a node of the junction graph; -1 when P2 is not active
+    private int player2Start = -1;
     private int player2Score = 0;
     private int player2Moves = 0;
 
     private int gameMode;
     private int winner = 0;
-    private Random random;
+    private MazeRandom random;
+    private MazeGenerator generator;
+    private ConnectivityCertificate certificate;
+    private EndlessMaze endless;
+    private int farthestChunkRing = 0;
+    private DistanceField distances;
+    private DistanceField exitDistances;
+    private PathFinder pathFinder;
+    private JunctionGraph junctionGraph;
+    private FogOfWar fog;
+    // Cells whose look changed since the screen last drew them: players' old and new cells and eaten dots
+    private final DirtyCellList dirtyCells = new DirtyCellList(DIRTY_CAPACITY);
+    // Cells of the bonus dots each player picked up, for the par of their route
+    private final List<Integer> player1Dots = new ArrayList<>();
+    private final List<Integer> player2Dots = new ArrayList<>();
+    private double exitDifficulty;
+    private double bonusDensity;
     
     // Added texture customization
     private Image wallImage;
     private Image pathImage;
 
     /**
-     * Creates a new maze model with the specified size, game mode, and seed.
+     * Creates a new maze model with the specified size, game mode, and seed,
+     * using the default generation algorithm.
      * 
      * @param mazeSize The size of the maze (must be odd)
      * @param gameMode The game mode (SINGLE_PLAYER or DUAL_PLAYER)
      * @param seed The random seed for maze generation
      */
     public MazeModel(int mazeSize, int gameMode, long seed) {
+        this(mazeSize, gameMode, seed, MazeGenerators.DEFAULT);
+    }
+
+    /**
+     * Creates a new maze model with the specified size, game mode, seed, and generation algorithm.
+     * 
+     * @param mazeSize The size of the maze (must be odd)
+     * @param gameMode The game mode (SINGLE_PLAYER or DUAL_PLAYER)
+     * @param seed The random seed for maze generation
+     * @param generator The algorithm that carves the maze
+     */
+    public MazeModel(int mazeSize, int gameMode, long seed, MazeGenerator generator) {
+        this(mazeSize, gameMode, seed, generator, DEFAULT_EXIT_DIFFICULTY);
+    }
+
+    /**
+     * Creates a new maze model with the specified size, game mode, seed, generation algorithm,
+     * and exit difficulty.
+     * 
+     * @param mazeSize The size of the maze (must be odd)
+     * @param gameMode The game mode (SINGLE_PLAYER or DUAL_PLAYER)
+     * @param seed The random seed for maze generation
+     * @param generator The algorithm that carves the maze
+     * @param exitDifficulty How far from the start the exit goes, from 0 to 1 of the longest path;
+     *                       ignored by Classic Prim, which keeps its original exit
+     */
+    public MazeModel(int mazeSize, int gameMode, long seed, MazeGenerator generator, double exitDifficulty) {
+        this(mazeSize, gameMode, seed, generator, exitDifficulty, CLASSIC_BONUS_DENSITY);
+    }
+
+    /**
+     * Creates a new maze model with the specified size, game mode, seed, generation algorithm,
+     * exit difficulty, and bonus density.
+     * 
+     * @param mazeSize The size of the maze (must be odd)
+     * @param gameMode The game mode (SINGLE_PLAYER or DUAL_PLAYER)
+     * @param seed The random seed for maze generation
+     * @param generator The algorithm that carves the maze
+     * @param exitDifficulty How far from the start the exit goes, from 0 to 1 of the longest path;
+     *                       ignored by Classic Prim, which keeps its original exit
+     * @param bonusDensity The share of free cells that hold a bonus dot, from 0 to 1
+     *                     ({@link #FULL_BONUS_DENSITY} fills every cell), or
+     *                     {@link #CLASSIC_BONUS_DENSITY} for the classic count
+     */
+    public MazeModel(int mazeSize, int gameMode, long seed, MazeGenerator generator, double exitDifficulty,
+                     double bonusDensity) {
+        this(mazeSize, gameMode, seed, generator, exitDifficulty, bonusDensity, 1);
+    }
+
+    /**
+     * Creates a new maze model of one or more floors.
+     * <p>
+     * The floors are stacked in one grid of {@code floors * mazeSize} rows, so floor {@code f}
+     * holds rows {@code f * mazeSize} to {@code (f + 1) * mazeSize - 1} and player rows run across
+     * all of them. Each floor is carved on its own and every pair of neighbouring floors is joined
+     * by a single staircase, which keeps the whole building one perfect maze.
+     * 
+     * @param mazeSize The size of each floor (must be odd)
+     * @param gameMode The game mode (SINGLE_PLAYER or DUAL_PLAYER)
+     * @param seed The random seed for maze generation
+     * @param generator The algorithm that carves each floor
+     * @param exitDifficulty How far from the start the exit goes, from 0 to 1 of the longest path
+     * @param bonusDensity The share of free cells that hold a bonus dot, or {@link #CLASSIC_BONUS_DENSITY}
+     * @param floors The number of floors, from 1 to {@link #MAX_FLOORS}; always 1 in dual-player mode
+     */
+    public MazeModel(int mazeSize, int gameMode, long seed, MazeGenerator generator, double exitDifficulty,
+                     double bonusDensity, int floors) {
+        if (mazeSize < MIN_SIZE || mazeSize > MAX_GRID_SIZE) {
+            throw new IllegalArgumentException("Maze size must be between " + MIN_SIZE + " and " + MAX_GRID_SIZE + ": " + mazeSize);
+        }
+        if (floors < 1 || floors > MAX_FLOORS) {
+            throw new IllegalArgumentException("Floor count must be between 1 and " + MAX_FLOORS + ": " + floors);
+        }
+        if (floors > 1 && gameMode == DUAL_PLAYER) {
+            // The game screen follows player 1's floor, so player 2 could not see another one
+            throw new IllegalArgumentException("Dual-player mazes have a single floor");
+        }
+        this.floors = floors;
         this.mazeSize = mazeSize;
         this.gameMode = gameMode;
         this.seed = seed;
-        this.random = new Random(seed);
+        this.generator = generator;
+        this.exitDifficulty = exitDifficulty;
+        this.bonusDensity = Math.min(bonusDensity, FULL_BONUS_DENSITY);
+        // Classic Prim replays seeds recorded before the per-phase streams, so it shares one java.util.Random
+        boolean classic = generator instanceof PrimMazeGenerator prim && prim.isClassic();
+        this.random = classic ? MazeRandom.legacy(seed) : MazeRandom.of(seed);
         
         initializeMazeState();
     }
 
+    /**
+     * Creates a model for the endless mode, where chunks of maze are generated around the player.
+     * 
+     * @param viewSize The number of cells shown around the player (must be odd)
+     * @param seed The world seed
+     * @param generator The algorithm that carves each chunk
+     */
+    private MazeModel(int viewSize, long seed, MazeGenerator generator, EndlessMaze endless) {
+        this.mazeSize = viewSize;
+        this.gameMode = ENDLESS;
+        this.seed = seed;
+        this.generator = generator;
+        this.exitDifficulty = DEFAULT_EXIT_DIFFICULTY;
+        this.bonusDensity = CLASSIC_BONUS_DENSITY;
+        this.endless = endless;
+        // There is no exit; the score grows with the distance travelled instead
+        this.exitX = Integer.MIN_VALUE;
+        this.exitY = Integer.MIN_VALUE;
+        this.playerX = 1;
+        this.playerY = 1;
+        this.player2X = -1;
+        this.player2Y = -1;
+    }
+
+    /**
+     * Creates a model for the endless mode.
+     * 
+     * @param viewSize The number of cells shown around the player (must be odd)
+     * @param seed The world seed
+     * @param generator The algorithm that carves each chunk
+     * @return The endless maze model
+     */
+    public static MazeModel endless(int viewSize, long seed, MazeGenerator generator) {
+        if (viewSize < MIN_SIZE || viewSize > MAX_SIZE) {
+            throw new IllegalArgumentException("View size must be between " + MIN_SIZE + " and " + MAX_SIZE + ": " + viewSize);
+        }
+        return new MazeModel(viewSize, seed, generator, new EndlessMaze(seed, generator));
+    }
+
+    /**
+     * Restores a maze model from a stored, freshly generated maze with the default exit
+     * difficulty and bonus density, skipping the carving.
+     * 
+     * @param mazeSize The size of the maze
+     * @param gameMode The game mode (SINGLE_PLAYER or DUAL_PLAYER)
+     * @param seed The random seed the maze was generated with
+     * @param generator The algorithm that carved the maze
+     * @param grid The generated grid, including the exit and bonus dots
+     * @param exitX The exit row
+     * @param exitY The exit column
+     * @param totalDots The number of bonus dots in the grid
+     * @param certificate The connectivity certificate from carving, or null
+     */
+    MazeModel(int mazeSize, int gameMode, long seed, MazeGenerator generator, MazeGrid grid,
+              int exitX, int exitY, int totalDots, ConnectivityCertificate certificate) {
+        this.mazeSize = mazeSize;
+        this.gameMode = gameMode;
+        this.seed = seed;
+        this.generator = generator;
+        this.exitDifficulty = DEFAULT_EXIT_DIFFICULTY;
+        this.bonusDensity = CLASSIC_BONUS_DENSITY;
+        this.maze = grid;
+        this.exitX = exitX;
+        this.exitY = exitY;
+        this.totalDots = totalDots;
+        this.certificate = certificate;
+        // The distance field is rebuilt on first use
+        placePlayers();
+    }
+
     /**
      * Initializes the maze state.
      */
     private void initializeMazeState() {
         // Initialize the maze with all walls
-        maze = new char[mazeSize][mazeSize];
-        for (int i = 0; i < mazeSize; i++) {
-            for (int j = 0; j < mazeSize; j++) {
-                maze[i][j] = WALL_CHAR;
+        maze = MazeGrid.create(floors * mazeSize, mazeSize);
+
+        // Carve the maze with the selected algorithm
+        RandomGenerator carving = random.forPhase(MazeRandom.Phase.CARVING);
+        certificate = floors == 1 ? generator.generate(maze, carving) : carveFloors(carving);
+
+        // Ensure borders are walls and the starting cell itself is a path
+        for (int floor = 0; floor < floors; floor++) {
+            int top = floor * mazeSize;
+            for (int i = 0; i < mazeSize; i++) {
+                maze.set(top, i, MazeGrid.WALL);
+                maze.set(top + mazeSize - 1, i, MazeGrid.WALL);
+                maze.set(top + i, 0, MazeGrid.WALL);
+                maze.set(top + i, mazeSize - 1, MazeGrid.WALL);
             }
         }
+        if (maze.get(1, 1) == MazeGrid.WALL) maze.set(1, 1, MazeGrid.PATH);
 
-        // Generate the maze using Prim's algorithm
-        generatePrimMaze(1, 1);
-        
-        // Ensure the starting cell itself is a path
-        if (maze[1][1] == WALL_CHAR) maze[1][1] = PATH_CHAR;
-
-        // Set the exit position, typically near the bottom-right
-        exitX = mazeSize - 2;
-        exitY = mazeSize - 2;
-
-        // Make sure exit is accessible and not a wall
-        if (maze[exitX][exitY] == WALL_CHAR) {
-            boolean foundExitSpot = false;
-            
-            // Try to find a valid path cell near bottom-right
-            int[][] searchDirections = {{0,0}, {-1,0}, {0,-1}, {1,0}, {0,1}, {-1,-1}, {1,-1}, {-1,1}, {1,1}};
-            for (int[] offset : searchDirections) {
-                int potentialX = mazeSize - 2 + offset[0];
-                int potentialY = mazeSize - 2 + offset[1];
-                if (potentialX > 0 && potentialX < mazeSize - 1 && 
-                    potentialY > 0 && potentialY < mazeSize - 1 && 
-                    maze[potentialX][potentialY] == PATH_CHAR) {
-                    exitX = potentialX;
-                    exitY = potentialY;
-                    foundExitSpot = true;
-                    break;
-                }
+        // One search from the start gives the distance of every cell, for the exit and for later lookups
+        distances = DistanceField.compute(maze, 1, 1, mazeSize);
+        if (random.isLegacy() && floors == 1) {
+            placeClassicExit();
+        } else {
+            int exitCell = distances.findCellForDifficulty(exitDifficulty);
+            if (isStairs(maze.getAt(exitCell))) {
+                // The exit must not replace a staircase, or the floors beyond it would be cut off
+                exitCell = openNeighbor(exitCell);
             }
+            exitX = maze.rowOf(exitCell);
+            exitY = maze.colOf(exitCell);
+        }
+        maze.set(exitX, exitY, MazeGrid.EXIT);
 
-            if (!foundExitSpot) {
-                // If still not found, iterate from bottom-right inwards to find any path cell
-                for (int r = mazeSize - 2; r > 0 && !foundExitSpot; r--) {
-                    for (int c = mazeSize - 2; c > 0; c--) {
-                        if (maze[r][c] == PATH_CHAR) {
-                            exitX = r;
-                            exitY = c;
-                            foundExitSpot = true;
-                            break;
-                        }
-                    }
-                }
-            }
+        if (usesClassicDots()) {
+            // Classic mazes keep their original order, so recorded seeds place the same dots
+            placeBonusDots();
+            placePlayers();
+        } else {
+            // Player 2 takes a path cell first, so dots at any density leave its start free
+            placePlayers();
+            placeBonusDots();
+        }
+    }
 
-            // Last resort: if absolutely no path cell found (highly unlikely)
-            if (!foundExitSpot) {
-                System.err.println("CRITICAL WARNING: Could not find any valid path cell for the exit! Placing at (1,3) or (3,1) as fallback.");
-                exitX = 1; exitY = 3;
-                if (exitY >= mazeSize - 1 || maze[exitX][exitY] == WALL_CHAR) {
-                    exitX = 3; exitY = 1;
-                }
-                if (exitX >= mazeSize - 1 || maze[exitX][exitY] == WALL_CHAR) {
-                    exitX = 1; exitY = 1; // Player start
-                }
+    /**
+     * Carves every floor with the selected algorithm and joins each pair of neighbouring floors
+     * with one staircase.
+     * <p>
+     * Floor 0 draws from the carving stream directly; the others get region streams derived from
+     * it, so adding floors never changes the ground floor of a seed.
+     *
+     * @param carving The carving stream
+     * @return The certificate for the whole building: every floor's tree joins plus one per staircase
+     */
+    private ConnectivityCertificate carveFloors(RandomGenerator carving) {
+        int floorCells = mazeSize * mazeSize;
+        long floorSeed = carving.nextLong();
+        int roomCount = 0;
+        long joins = 0;
+
+        for (int floor = 0; floor < floors; floor++) {
+            MazeGrid floorGrid = MazeGrid.create(mazeSize, mazeSize);
+            ConnectivityCertificate floorCertificate = generator.generate(floorGrid,
+                    floor == 0 ? carving : MazeRandom.forRegion(floorSeed, floor));
+            roomCount += floorCertificate.getRoomCount();
+            joins += floorCertificate.getTreeJoins();
+
+            int base = floor * floorCells;
+            for (int index = 0; index < floorCells; index++) {
+                int type = floorGrid.getAt(index);
+                if (type != MazeGrid.WALL) maze.setAt(base + index, type);
             }
+            floorGrid.release();
         }
-        maze[exitX][exitY] = EXIT_CHAR;
 
-        // Place bonus dots
-        placeBonusDots();
+        // One staircase per pair of floors, never on the start or the landing of the staircase below it
+        int roomsPerFloor = maze.getRoomCols() * ((mazeSize - 1) / 2);
+        int start = maze.index(1, 1);
+        int previousLanding = start;
+        for (int floor = 0; floor + 1 < floors; floor++) {
+            int cell;
+            do {
+                cell = maze.roomToCell(carving.nextInt(roomsPerFloor));
+            } while (cell == previousLanding || (floor == 0 && cell == start));
+            maze.setAt(floor * floorCells + cell, MazeGrid.STAIRS_UP);
+            maze.setAt((floor + 1) * floorCells + cell, MazeGrid.STAIRS_DOWN);
+            previousLanding = cell;
+            joins++;
+        }
+        return new ConnectivityCertificate(roomCount, joins);
+    }
 
+    /**
+     * Sets the players on their starting cells.
+     */
+    private void placePlayers() {
         // Set player initial positions
         playerX = 1; // Player 1 always starts at (1,1)
         playerY = 1;
@@ -151,7 +372,7 @@ public class MazeModel {
                 int checkX = playerX + offset[0];
                 int checkY = playerY + offset[1];
                 if (checkX > 0 && checkX < mazeSize - 1 && checkY > 0 && checkY < mazeSize - 1 &&
-                        maze[checkX][checkY] == PATH_CHAR && !(checkX == exitX && checkY == exitY)) {
+                        maze.get(checkX, checkY) == MazeGrid.PATH && !(checkX == exitX && checkY == exitY)) {
                     player2X = checkX;
                     player2Y = checkY;
                     p2placed = true;
@@ -163,7 +384,7 @@ public class MazeModel {
                 // Search for any valid path spot not occupied by P1 or Exit
                 for (int r = 1; r < mazeSize - 1 && !p2placed; r++) {
                     for (int c = 1; c < mazeSize - 1; c++) {
-                        if (maze[r][c] == PATH_CHAR && !(r == playerX && c == playerY) && !(r == exitX && c == exitY)) {
+                        if (maze.get(r, c) == MazeGrid.PATH && !(r == playerX && c == playerY) && !(r == exitX && c == exitY)) {
                             player2X = r;
                             player2Y = c;
                             p2placed = true;
@@ -175,7 +396,7 @@ public class MazeModel {
             if (!p2placed) {
                 player2X = (playerX == 1 && playerY == 3) ? 3 : 1;
                 player2Y = (playerX == 1 && playerY == 3) ? 1 : 3;
-                if (maze[player2X][player2Y] == WALL_CHAR) {
+                if (maze.get(player2X, player2Y) == MazeGrid.WALL) {
                     player2X = playerX; player2Y = playerY;
                 }
                 System.err.println("Warning: Could not find ideal separate spot for Player 2. Placed at fallback: " + player2X + "," + player2Y);
@@ -184,160 +405,179 @@ public class MazeModel {
             player2X = -1; // Indicates P2 is not active
             player2Y = -1;
         }
+        player2Start = player2X >= 0 ? maze.index(player2X, player2Y) : -1;
         winner = 0; // Reset winner for the new maze
     }
 
     /**
-     * Places bonus dots in the maze.
+     * Places the exit near the bottom-right corner, as mazes were laid out before the
+     * distance field existed, so that recorded Classic Prim seeds keep their exit.
      */
-    private void placeBonusDots() {
-        int dotsToPlace = mazeSize / 3;
-        if (dotsToPlace < 1 && mazeSize > MIN_SIZE) dotsToPlace = 1;
-        else if (mazeSize <= MIN_SIZE) dotsToPlace = 0;
+    private void placeClassicExit() {
+        // Set the exit position, typically near the bottom-right
+        exitX = mazeSize - 2;
+        exitY = mazeSize - 2;
 
-        totalDots = 0;
-        int attempts = 0;
-        final int maxAttempts = mazeSize * mazeSize * 2;
+        // Make sure exit is accessible and not a wall
+        if (maze.get(exitX, exitY) == MazeGrid.WALL) {
+            boolean foundExitSpot = false;
+            
+            // Try to find a valid path cell near bottom-right
+            int[][] searchDirections = {{0,0}, {-1,0}, {0,-1}, {1,0}, {0,1}, {-1,-1}, {1,-1}, {-1,1}, {1,1}};
+            for (int[] offset : searchDirections) {
+                int potentialX = mazeSize - 2 + offset[0];
+                int potentialY = mazeSize - 2 + offset[1];
+                if (potentialX > 0 && potentialX < mazeSize - 1 && 
+                    potentialY > 0 && potentialY < mazeSize - 1 && 
+                    maze.get(potentialX, potentialY) == MazeGrid.PATH) {
+                    exitX = potentialX;
+                    exitY = potentialY;
+                    foundExitSpot = true;
+                    break;
+                }
+            }
 
-        while (totalDots < dotsToPlace && attempts < maxAttempts) {
-            int randX = 1 + random.nextInt(mazeSize - 2);
-            int randY = 1 + random.nextInt(mazeSize - 2);
+            if (!foundExitSpot) {
+                // If still not found, iterate from bottom-right inwards to find any path cell
+                for (int r = mazeSize - 2; r > 0 && !foundExitSpot; r--) {
+                    for (int c = mazeSize - 2; c > 0; c--) {
+                        if (maze.get(r, c) == MazeGrid.PATH) {
+                            exitX = r;
+                            exitY = c;
+                            foundExitSpot = true;
+                            break;
+                        }
+                    }
+                }
+            }
 
-            if (maze[randX][randY] == PATH_CHAR &&
-                    !(randX == playerX && randY == playerY) &&
-                    !(gameMode == DUAL_PLAYER && randX == player2X && randY == player2Y) &&
-                    !(randX == exitX && randY == exitY)) {
-                maze[randX][randY] = BONUS_CHAR;
-                totalDots++;
+            // Last resort: if absolutely no path cell found (highly unlikely)
+            if (!foundExitSpot) {
+                System.err.println("CRITICAL WARNING: Could not find any valid path cell for the exit! Placing at (1,3) or (3,1) as fallback.");
+                exitX = 1; exitY = 3;
+                if (exitY >= mazeSize - 1 || maze.get(exitX, exitY) == MazeGrid.WALL) {
+                    exitX = 3; exitY = 1;
+                }
+                if (exitX >= mazeSize - 1 || maze.get(exitX, exitY) == MazeGrid.WALL) {
+                    exitX = 1; exitY = 1; // Player start
+                }
             }
-            attempts++;
         }
     }
 
     /**
-     * Generates a maze using Prim's algorithm.
-     * 
-     * @param startX The starting X coordinate
-     * @param startY The starting Y coordinate
+     * Places bonus dots in the maze.
+     * <p>
+     * The free cells are gathered in one pass and the dots are drawn by a partial Fisher-Yates
+     * shuffle, one swap per dot, so placement never retries and any density is as cheap as
+     * the scan. Classic Prim with the classic count keeps the old rejection sampling so
+     * recorded seeds get the same dots.
      */
-    private void generatePrimMaze(int startX, int startY) {
-        maze[startX][startY] = PATH_CHAR;
+    private void placeBonusDots() {
+        RandomGenerator bonusRandom = random.forPhase(MazeRandom.Phase.BONUS_PLACEMENT);
+        totalDots = 0;
+        if (usesClassicDots()) {
+            placeClassicBonusDots(bonusRandom);
+            return;
+        }
 
-        List<int[]> frontier = new ArrayList<>();
-        addFrontierCells(startX, startY, frontier);
+        // Every path cell except the starts and the exit, which are never turned into dots
+        int start = maze.index(playerX, playerY);
+        int start2 = gameMode == DUAL_PLAYER ? maze.index(player2X, player2Y) : start;
+        int exit = maze.index(exitX, exitY);
+        int[] freeCells = new int[maze.getCellCount()];
+        int freeCount = 0;
+        for (int index = 0, cellCount = maze.getCellCount(); index < cellCount; index++) {
+            if (maze.getAt(index) == MazeGrid.PATH && index != start && index != start2 && index != exit) {
+                freeCells[freeCount++] = index;
+            }
+        }
 
-        while (!frontier.isEmpty()) {
-            int[] currentCell = frontier.remove(random.nextInt(frontier.size()));
-            int r = currentCell[0];
-            int c = currentCell[1];
+        int dotsToPlace = bonusDensity < 0 ? classicDotCount() * floors : (int) Math.round(bonusDensity * freeCount);
+        dotsToPlace = Math.min(dotsToPlace, freeCount);
 
-            List<int[]> neighbors = new ArrayList<>();
-            int[][] directions = {{-2, 0}, {2, 0}, {0, -2}, {0, 2}};
+        for (int i = 0; i < dotsToPlace; i++) {
+            int j = i + bonusRandom.nextInt(freeCount - i);
+            int cell = freeCells[j];
+            freeCells[j] = freeCells[i];
+            freeCells[i] = cell;
+            maze.setAt(cell, MazeGrid.BONUS);
+        }
+        totalDots = dotsToPlace;
+    }
 
-            for (int[] dir : directions) {
-                int nr = r + dir[0];
-                int nc = c + dir[1];
-                if (nr > 0 && nr < mazeSize - 1 && nc > 0 && nc < mazeSize - 1 && maze[nr][nc] == PATH_CHAR) {
-                    neighbors.add(new int[]{nr, nc});
-                }
-            }
+    /**
+     * Checks whether dots are placed as they were before densities existed, by rejection
+     * sampling from the shared legacy stream before the players are placed.
+     */
+    private boolean usesClassicDots() {
+        return bonusDensity < 0 && random.isLegacy() && floors == 1;
+    }
 
-            if (!neighbors.isEmpty()) {
-                int[] chosenNeighbor = neighbors.get(random.nextInt(neighbors.size()));
-                int nr = chosenNeighbor[0];
-                int nc = chosenNeighbor[1];
+    /**
+     * Gets the number of dots placed at the classic density.
+     */
+    private int classicDotCount() {
+        int dotsToPlace = mazeSize / 3;
+        if (dotsToPlace < 1 && mazeSize > MIN_SIZE) dotsToPlace = 1;
+        else if (mazeSize <= MIN_SIZE) dotsToPlace = 0;
+        return dotsToPlace;
+    }
 
-                int wallR = r + (nr - r) / 2;
-                int wallC = c + (nc - c) / 2;
+    /**
+     * Places the classic number of dots by rejection sampling, drawing from the shared legacy stream.
+     */
+    private void placeClassicBonusDots(RandomGenerator bonusRandom) {
+        int dotsToPlace = classicDotCount();
+        int attempts = 0;
+        final int maxAttempts = mazeSize * mazeSize * 2;
 
-                maze[wallR][wallC] = PATH_CHAR;
-                maze[r][c] = PATH_CHAR;
+        while (totalDots < dotsToPlace && attempts < maxAttempts) {
+            int randX = 1 + bonusRandom.nextInt(mazeSize - 2);
+            int randY = 1 + bonusRandom.nextInt(mazeSize - 2);
 
-                addFrontierCells(r, c, frontier);
+            if (maze.get(randX, randY) == MazeGrid.PATH &&
+                    !(randX == playerX && randY == playerY) &&
+                    !(gameMode == DUAL_PLAYER && randX == player2X && randY == player2Y) &&
+                    !(randX == exitX && randY == exitY)) {
+                maze.set(randX, randY, MazeGrid.BONUS);
+                totalDots++;
             }
-        }
-        
-        // Ensure borders are walls
-        for (int i = 0; i < mazeSize; i++) {
-            maze[0][i] = WALL_CHAR;
-            maze[mazeSize-1][i] = WALL_CHAR;
-            maze[i][0] = WALL_CHAR;
-            maze[i][mazeSize-1] = WALL_CHAR;
+            attempts++;
         }
     }
 
     /**
-     * Adds frontier cells to the list.
-     * 
-     * @param r The row
-     * @param c The column
-     * @param frontier The list of frontier cells
-     */
-    private void addFrontierCells(int r, int c, List<int[]> frontier) {
-        int[][] directions = {{-2, 0}, {2, 0}, {0, -2}, {0, 2}};
-        for (int[] dir : directions) {
-            int nr = r + dir[0];
-            int nc = c + dir[1];
-
-            if (nr > 0 && nr < mazeSize - 1 && nc > 0 && nc < mazeSize - 1 && maze[nr][nc] == WALL_CHAR) {
-                boolean exists = false;
-                for (int[] cell : frontier) {
-                    if (cell[0] == nr && cell[1] == nc) {
-                        exists = true;
-                        break;
-                    }
-                }
-                if (!exists) {
-                    frontier.add(new int[]{nr, nc});
-                }
-            }
+     * Checks whether the exit can be reached from the start.
+     * <p>
+     * Uses the certificate collected while carving when there is one, which makes this O(1):
+     * in a spanning tree of the rooms every open cell reaches every other. Mazes without a
+     * valid certificate fall back to the full search in {@link #isExitReachable()}.
+     *
+     * @return true if the maze is solvable, false otherwise
+     */
+    public boolean isSolvable() {
+        if (endless != null) return true;
+        if (certificate != null && certificate.isSpanningTree()
+                && maze.get(1, 1) != MazeGrid.WALL && maze.get(exitX, exitY) != MazeGrid.WALL) {
+            return true;
         }
+        return isExitReachable();
     }
 
     /**
-     * Checks if the exit is reachable from the player's starting position.
+     * Checks if the exit is reachable from the player's starting position by searching the grid,
+     * following stairs between floors.
      * 
      * @return true if the exit is reachable, false otherwise
      */
     public boolean isExitReachable() {
         if (maze == null || playerX < 0 || exitX < 0) return false;
-        if (playerX == exitX && playerY == exitY) return true;
-
-        boolean[][] visited = new boolean[mazeSize][mazeSize];
-        Queue<int[]> queue = new LinkedList<>();
-
-        if (maze[1][1] != WALL_CHAR) {
-            queue.offer(new int[]{1, 1});
-            visited[1][1] = true;
-        } else {
+        if (maze.get(1, 1) == MazeGrid.WALL) {
             System.err.println("Error in isExitReachable: Player 1 start (1,1) is a wall. Maze is likely invalid.");
             return false;
         }
-
-        int[] dRow = {-1, 1, 0, 0};
-        int[] dCol = {0, 0, -1, 1};
-
-        while (!queue.isEmpty()) {
-            int[] current = queue.poll();
-            int r = current[0];
-            int c = current[1];
-
-            if (r == exitX && c == exitY) {
-                return true;
-            }
-
-            for (int i = 0; i < 4; i++) {
-                int newR = r + dRow[i];
-                int newC = c + dCol[i];
-
-                if (newR >= 0 && newR < mazeSize && newC >= 0 && newC < mazeSize &&
-                        !visited[newR][newC] && maze[newR][newC] != WALL_CHAR) {
-                    visited[newR][newC] = true;
-                    queue.offer(new int[]{newR, newC});
-                }
-            }
-        }
-        return false;
+        return getPathFinder().isReachable(maze.index(1, 1), maze.index(exitX, exitY));
     }
 
     /**
@@ -356,13 +596,33 @@ public class MazeModel {
             newY = playerY + dy;
             
             if (isValidMove(newX, newY)) {
+                int previousCell = endless != null ? -1 : maze.index(playerX, playerY);
                 playerX = newX;
                 playerY = newY;
                 player1Moves++;
                 
-                if (maze[playerX][playerY] == BONUS_CHAR) {
+                if (endless != null) {
+                    // Each ring of chunks further from the start is worth a bonus
+                    int ring = Math.max(Math.abs(Math.floorDiv(playerX, EndlessMaze.CHUNK_CELLS)),
+                                        Math.abs(Math.floorDiv(playerY, EndlessMaze.CHUNK_CELLS)));
+                    if (ring > farthestChunkRing) {
+                        player1Score += BONUS_POINTS * (ring - farthestChunkRing);
+                        farthestChunkRing = ring;
+                    }
+                    // The view scrolls with the player, so every cell on screen moves
+                    dirtyCells.markAll();
+                    return true;
+                }
+                
+                playerX = takeStairs(playerX, playerY);
+                if (fog != null) fog.update(1, playerX, playerY);
+                int cell = maze.index(playerX, playerY);
+                dirtyCells.add(previousCell);
+                dirtyCells.add(cell);
+                if (maze.getAt(cell) == MazeGrid.BONUS) {
                     player1Score += BONUS_POINTS;
-                    maze[playerX][playerY] = PATH_CHAR;
+                    maze.setAt(cell, MazeGrid.PATH);
+                    player1Dots.add(cell);
                 }
                 
                 if (playerX == exitX && playerY == exitY) {
@@ -376,13 +636,20 @@ public class MazeModel {
             newY = player2Y + dy;
             
             if (isValidMove(newX, newY)) {
+                int previousCell = maze.index(player2X, player2Y);
                 player2X = newX;
                 player2Y = newY;
                 player2Moves++;
                 
-                if (maze[player2X][player2Y] == BONUS_CHAR) {
+                player2X = takeStairs(player2X, player2Y);
+                if (fog != null) fog.update(2, player2X, player2Y);
+                int cell = maze.index(player2X, player2Y);
+                dirtyCells.add(previousCell);
+                dirtyCells.add(cell);
+                if (maze.getAt(cell) == MazeGrid.BONUS) {
                     player2Score += BONUS_POINTS;
-                    maze[player2X][player2Y] = PATH_CHAR;
+                    maze.setAt(cell, MazeGrid.PATH);
+                    player2Dots.add(cell);
                 }
                 
                 if (player2X == exitX && player2Y == exitY) {
@@ -396,6 +663,20 @@ public class MazeModel {
         return false;
     }
 
+    /**
+     * Moves a player who stepped onto a staircase to the matching cell one floor up or down.
+     * 
+     * @param x The row the player stepped onto
+     * @param y The column the player stepped onto
+     * @return The row the player ends up on
+     */
+    private int takeStairs(int x, int y) {
+        int cell = maze.get(x, y);
+        if (cell == MazeGrid.STAIRS_UP) return x + mazeSize;
+        if (cell == MazeGrid.STAIRS_DOWN) return x - mazeSize;
+        return x;
+    }
+
     /**
      * Checks if a move to the specified coordinates is valid.
      * 
@@ -404,17 +685,209 @@ public class MazeModel {
      * @return true if the move is valid, false otherwise
      */
     private boolean isValidMove(int x, int y) {
-        return x >= 0 && x < mazeSize && y >= 0 && y < mazeSize && maze[x][y] != WALL_CHAR;
+        return endless != null ? endless.isOpen(x, y) : maze.isOpen(x, y);
+    }
+
+    /**
+     * Gets the type of the cell at the given position, in world coordinates for the endless mode.
+     * 
+     * @param row The row
+     * @param col The column
+     * @return The {@link MazeGrid} cell type
+     */
+    public int getCell(int row, int col) {
+        return endless != null ? endless.get(row, col) : maze.get(row, col);
+    }
+
+    /**
+     * Gets the top row of the area shown on screen, which follows the player in the endless mode.
+     */
+    public int getViewRow() {
+        return endless != null ? playerX - mazeSize / 2 : getCurrentFloor() * mazeSize;
+    }
+
+    /**
+     * Gets the floor player 1 is on, which is the floor shown on screen.
+     */
+    public int getCurrentFloor() {
+        return endless != null ? 0 : playerX / mazeSize;
+    }
+
+    /**
+     * Gets the left column of the area shown on screen, which follows the player in the endless mode.
+     */
+    public int getViewCol() {
+        return endless != null ? playerY - mazeSize / 2 : 0;
+    }
+
+    /**
+     * Frees the memory of the maze grid right away, which matters for large off-heap grids.
+     * The model must not be used afterwards.
+     */
+    public void release() {
+        if (maze != null) maze.release();
+        pathFinder = null;
+        junctionGraph = null;
+        fog = null;
     }
 
     // Getters
-    public char[][] getMaze() { return maze; }
+    public MazeGrid getGrid() { return maze; }
     public int getMazeSize() { return mazeSize; }
+    public int getFloors() { return floors; }
     public long getSeed() { return seed; }
+    public MazeGenerator getGenerator() { return generator; }
+    public ConnectivityCertificate getCertificate() { return certificate; }
+    public boolean isEndless() { return endless != null; }
+    public EndlessMaze getEndlessMaze() { return endless; }
+    public int getExitDistance() { return endless != null ? DistanceField.UNREACHABLE : getDistanceField().get(exitX, exitY); }
+    public int getTotalDots() { return totalDots; }
+    public double getBonusDensity() { return bonusDensity; }
+    public double getExitDifficulty() { return exitDifficulty; }
+
+    /**
+     * Gets the walking distance of every cell from the start, computing it on first use
+     * for models restored from storage.
+     *
+     * @return The distance field, or null in the endless mode
+     */
+    public DistanceField getDistanceField() {
+        if (distances == null && maze != null) {
+            distances = DistanceField.compute(maze, 1, 1, mazeSize);
+        }
+        return distances;
+    }
+
+    /**
+     * Gets the walking distance of every cell to the exit, computing it on first use.
+     * Players only ever change bonus cells, so one field serves every hint in a game.
+     *
+     * @return The distance field, or null in the endless mode
+     */
+    public DistanceField getExitDistanceField() {
+        if (exitDistances == null && maze != null) {
+            exitDistances = DistanceField.compute(maze, exitX, exitY, mazeSize);
+        }
+        return exitDistances;
+    }
+
+    /**
+     * Gets the next steps toward the exit for a player, by walking down the distance-to-exit field.
+     *
+     * @param playerNum The player number (1 or 2)
+     * @param steps The most steps to return
+     * @return The flat indices of the next cells on a shortest path to the exit, nearest first;
+     *         empty in the endless mode or when the player is on the exit
+     */
+    public int[] getHint(int playerNum, int steps) {
+        DistanceField field = getExitDistanceField();
+        if (field == null) return new int[0];
+
+        int cell = playerNum == 1 ? maze.index(playerX, playerY) : maze.index(player2X, player2Y);
+        int floorCells = mazeSize * maze.getCols();
+        int[] hint = new int[Math.max(0, steps)];
+        int count = 0;
+        while (count < hint.length && field.getAt(cell) > 0) {
+            int next = field.stepTowardSource(maze, cell, mazeSize);
+            if (count == 0 && Math.abs(next - cell) == floorCells) {
+                // Standing on a staircase does not use it; the player steps off and back on
+                hint[count++] = openNeighbor(cell);
+                if (count < hint.length) hint[count++] = cell;
+                cell = next;
+                continue;
+            }
+            hint[count++] = next;
+            cell = next;
+        }
+        return Arrays.copyOf(hint, count);
+    }
+
+    /**
+     * Finds an open cell beside the given one on the same floor.
+     */
+    private int openNeighbor(int cell) {
+        int cols = maze.getCols();
+        if (maze.getAt(cell - cols) != MazeGrid.WALL) return cell - cols;
+        if (maze.getAt(cell + cols) != MazeGrid.WALL) return cell + cols;
+        if (maze.getAt(cell - 1) != MazeGrid.WALL) return cell - 1;
+        return cell + 1;
+    }
+
+    private static boolean isStairs(int type) {
+        return type == MazeGrid.STAIRS_UP || type == MazeGrid.STAIRS_DOWN;
+    }
+
+    /**
+     * Gets a path finder over this maze, created on first use and kept for later queries.
+     *
+     * @return The path finder, or null in the endless mode
+     */
+    public PathFinder getPathFinder() {
+        if (pathFinder == null && maze != null) {
+            pathFinder = new PathFinder(maze, mazeSize);
+        }
+        return pathFinder;
+    }
+
+    /**
+     * Gets the junction graph of this maze, with the players' starts and the exit as nodes, built
+     * on first use. Like the path finder it is not thread-safe for queries; bots only read its
+     * structure.
+     *
+     * @return The junction graph, or null in the endless mode
+     */
+    public JunctionGraph getJunctionGraph() {
+        if (junctionGraph == null && maze != null) {
+            int start = maze.index(1, 1);
+            int exit = maze.index(exitX, exitY);
+            int[] pinned = player2Start >= 0 ? new int[]{start, player2Start, exit} : new int[]{start, exit};
+            junctionGraph = new JunctionGraph(maze, mazeSize, pinned);
+        }
+        return junctionGraph;
+    }
+
+    /**
+     * Turns on fog of war: from now on each player sees only what is in their line of sight
+     * and what they have already seen. Has no effect in the endless mode.
+     */
+    public void enableFogOfWar() {
+        if (maze == null || fog != null) return;
+        fog = new FogOfWar(maze, mazeSize, gameMode == DUAL_PLAYER ? 2 : 1, FOG_RADIUS);
+        fog.update(1, playerX, playerY);
+        if (gameMode == DUAL_PLAYER) fog.update(2, player2X, player2Y);
+    }
+
+    /**
+     * Gets the cells whose look changed since the renderer last cleared the list.
+     */
+    public DirtyCellList getDirtyCells() {
+        return dirtyCells;
+    }
+
+    /**
+     * Gets the fog of war of this game.
+     *
+     * @return The fog, or null if the game has none
+     */
+    public FogOfWar getFogOfWar() {
+        return fog;
+    }
+
+    /**
+     * Gets the bonus dots a player has picked up, in the order they were collected.
+     *
+     * @param playerNum The player number (1 or 2)
+     * @return The flat indices of the collected dots
+     */
+    public List<Integer> getCollectedDots(int playerNum) {
+        return Collections.unmodifiableList(playerNum == 1 ? player1Dots : player2Dots);
+    }
     public int getPlayerX() { return playerX; }
     public int getPlayerY() { return playerY; }
     public int getPlayer2X() { return player2X; }
     public int getPlayer2Y() { return player2Y; }
+    public int getExitX() { return exitX; }
+    public int getExitY() { return exitY; }
     public int getPlayer1Score() { return player1Score; }
     public int getPlayer1Moves() { return player1Moves; }
     public int getPlayer2Score() { return player2Score; }
@@ -0,0 +1,149 @@
+package com.mnour.jfxmaze;
+
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Builds the mazes the player is most likely to ask for next on a background thread.
+ * <p>
+ * While a game runs, the controller asks for a copy of the current maze (for a restart) and
+ * for a maze with the same settings and a new seed (for New Maze). Finished models wait in a
+ * small bounded queue; starting a game with matching settings takes one out instead of
+ * generating on the JavaFX thread. When the queue is full the oldest maze is dropped, since
+ * it belongs to settings the player has already moved on from.
+ * <p>
+ * Nothing built here is stored in the {@link MazeCache}: a restart may never happen and a new
+ * seed is played once, so the game stores a maze only when it is actually started by seed.
+ */
+public final class MazePregenerator {
+    private static final int CAPACITY = 2;
+
+    private record Settings(int mazeSize, int gameMode, long seed, MazeGenerator generator, boolean fresh) {}
+    private record Prepared(Settings settings, MazeModel model) {}
+
+    private final MazeCache cache;
+    private final BlockingQueue<Prepared> ready = new ArrayBlockingQueue<>(CAPACITY);
+    private final Set<Settings> pending = ConcurrentHashMap.newKeySet();
+    private final SplittableRandom seeds = new SplittableRandom();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "maze-pregenerator");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    /**
+     * Creates a pregenerator that reads the given maze cache.
+     *
+     * @param cache The cache of stored mazes
+     */
+    public MazePregenerator(MazeCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Prepares a maze with exactly the given settings, such as the one being played for a restart.
+     *
+     * @param mazeSize The size of the maze
+     * @param gameMode The game mode
+     * @param seed The random seed
+     * @param generator The algorithm that carves the maze
+     */
+    public void prepare(int mazeSize, int gameMode, long seed, MazeGenerator generator) {
+        submit(new Settings(mazeSize, gameMode, seed, generator, false));
+    }
+
+    /**
+     * Prepares a maze with the given settings and a seed of its own, for a new game.
+     *
+     * @param mazeSize The size of the maze
+     * @param gameMode The game mode
+     * @param generator The algorithm that carves the maze
+     */
+    public void prepareFresh(int mazeSize, int gameMode, MazeGenerator generator) {
+        for (Prepared prepared : ready) {
+            Settings settings = prepared.settings();
+            if (settings.fresh() && matches(settings, mazeSize, gameMode, generator)) {
+                return;
+            }
+        }
+        for (Settings settings : pending) {
+            if (settings.fresh() && matches(settings, mazeSize, gameMode, generator)) {
+                return;
+            }
+        }
+        long seed;
+        synchronized (seeds) {
+            seed = seeds.nextLong(1, Long.MAX_VALUE);
+        }
+        submit(new Settings(mazeSize, gameMode, seed, generator, true));
+    }
+
+    /**
+     * Takes a prepared maze with exactly the given settings.
+     *
+     * @return The maze, or null if none is ready
+     */
+    public MazeModel take(int mazeSize, int gameMode, long seed, MazeGenerator generator) {
+        for (Prepared prepared : ready) {
+            Settings settings = prepared.settings();
+            if (settings.seed() == seed && matches(settings, mazeSize, gameMode, generator) && ready.remove(prepared)) {
+                return prepared.model();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes a prepared maze with the given settings and a seed chosen by the pregenerator.
+     *
+     * @return The maze, or null if none is ready
+     */
+    public MazeModel takeFresh(int mazeSize, int gameMode, MazeGenerator generator) {
+        for (Prepared prepared : ready) {
+            Settings settings = prepared.settings();
+            if (settings.fresh() && matches(settings, mazeSize, gameMode, generator) && ready.remove(prepared)) {
+                return prepared.model();
+            }
+        }
+        return null;
+    }
+
+    private void submit(Settings settings) {
+        for (Prepared prepared : ready) {
+            if (prepared.settings().equals(settings)) {
+                return;
+            }
+        }
+        if (!pending.add(settings)) {
+            return;
+        }
+        worker.execute(() -> {
+            try {
+                MazeModel model = settings.fresh()
+                        ? new MazeModel(settings.mazeSize(), settings.gameMode(), settings.seed(), settings.generator())
+                        : cache.getOrGenerate(settings.mazeSize(), settings.gameMode(), settings.seed(), settings.generator());
+                Prepared prepared = new Prepared(settings, model);
+                while (!ready.offer(prepared)) {
+                    Prepared dropped = ready.poll();
+                    if (dropped != null) {
+                        dropped.model().release();
+                    }
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Failed to pregenerate maze: " + e.getMessage());
+            } finally {
+                pending.remove(settings);
+            }
+        });
+    }
+
+    private static boolean matches(Settings settings, int mazeSize, int gameMode, MazeGenerator generator) {
+        return settings.mazeSize() == mazeSize && settings.gameMode() == gameMode && settings.generator() == generator;
+    }
+}
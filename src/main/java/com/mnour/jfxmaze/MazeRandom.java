@@ -0,0 +1,98 @@
+package com.mnour.jfxmaze;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Derives independent, reproducible random streams from a maze seed.
+ * <p>
+ * Every generation phase, and every region inside a phase, gets its own {@link SplittableRandom}
+ * whose seed is mixed from the maze seed and the phase or region key. A stream therefore never
+ * depends on how many numbers another phase drew or on which thread asked first, and no stream
+ * pays for the atomic updates of {@link java.util.Random}.
+ * <p>
+ * {@link #legacy(long)} instead hands out one shared {@code java.util.Random} for all phases,
+ * in call order, which reproduces mazes created before the streams were split.
+ */
+public final class MazeRandom {
+
+    /**
+     * The generation phases that draw random numbers.
+     */
+    public enum Phase {
+        CARVING,
+        BONUS_PLACEMENT
+    }
+
+    private final long seed;
+    private final Random legacyRandom;
+
+    private MazeRandom(long seed, Random legacyRandom) {
+        this.seed = seed;
+        this.legacyRandom = legacyRandom;
+    }
+
+    /**
+     * Creates a source with an independent stream per phase.
+     *
+     * @param seed The maze seed
+     * @return The random source
+     */
+    public static MazeRandom of(long seed) {
+        return new MazeRandom(seed, null);
+    }
+
+    /**
+     * Creates a compatibility source that shares one {@code java.util.Random} across all phases.
+     *
+     * @param seed The maze seed
+     * @return The random source
+     */
+    public static MazeRandom legacy(long seed) {
+        return new MazeRandom(seed, new Random(seed));
+    }
+
+    /**
+     * Gets the stream for a generation phase. Each call returns a fresh stream starting
+     * at the same point, except in legacy mode where the shared generator is returned.
+     *
+     * @param phase The generation phase
+     * @return The random stream
+     */
+    public RandomGenerator forPhase(Phase phase) {
+        if (legacyRandom != null) {
+            return legacyRandom;
+        }
+        return new SplittableRandom(mix64(seed ^ mix64(phase.ordinal() + 1L)));
+    }
+
+    /**
+     * Gets the stream for one region of a phase, such as a tile carved by its own thread.
+     * Generators only see the phase's {@link RandomGenerator}, so they draw a base seed
+     * from it and derive their regions here.
+     *
+     * @param baseSeed The base seed
+     * @param region The region key
+     * @return The random stream
+     */
+    public static SplittableRandom forRegion(long baseSeed, long region) {
+        return new SplittableRandom(mix64(baseSeed + mix64(region + 0x9E3779B97F4A7C15L)));
+    }
+
+    /**
+     * Checks whether this source reproduces pre-split seeds.
+     */
+    public boolean isLegacy() {
+        return legacyRandom != null;
+    }
+
+    /**
+     * Scrambles a 64-bit value (the SplitMix64 finalizer), so that nearby keys give unrelated seeds.
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
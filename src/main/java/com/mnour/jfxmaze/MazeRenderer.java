@@ -3,10 +3,14 @@ package com.mnour.jfxmaze;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 
+import java.util.Arrays;
+
 /**
  * Handles rendering the maze and players on a JavaFX Canvas.
  * <p>
@@ -36,6 +40,30 @@ public class MazeRenderer {
     private Image player1CurrentImage;
     private Image player2CurrentImage;
 
+    // Hinted cells for each player, drawn over the maze until the player moves
+    private int[] player1Hint = new int[0];
+    private int[] player2Hint = new int[0];
+    private static final Color PLAYER1_HINT_COLOR = Color.rgb(30, 144, 255, 0.45);
+    private static final Color PLAYER2_HINT_COLOR = Color.rgb(220, 20, 60, 0.45);
+
+    // Floor texture, walls and stairs of each floor, drawn once and reused until the textures change
+    private Image[] staticLayers;
+    // Cells of each floor that held a bonus dot when its layer was drawn; dots only ever disappear
+    private int[][] bonusCells;
+
+    // Fog of war overlay with one pixel per cell of the floor in view, rewritten only where the fog changed
+    private WritableImage fogImage;
+    private int fogFloor = -1;
+    private static final int FOG_UNSEEN_ARGB = 0xFF000000;
+    private static final int FOG_EXPLORED_ARGB = 0x99000000;
+
+    // Cells to repaint on the next incremental render besides the model's: hints taken away, and sprites
+    private final DirtyCellList pendingCells = new DirtyCellList(256);
+    // Floor on screen after the last render, or -1 before the first one
+    private int shownFloor = -1;
+    // Cell both players shared at the last render, whose right neighbour holds part of player 2's sprite
+    private int shownOverlapCell = -1;
+
     /**
      * Creates a new maze renderer.
      *
@@ -123,8 +151,9 @@ public class MazeRenderer {
     }
 
     /**
-     * Renders the entire maze, including paths, walls, bonuses, exit, and players.
-     * Uses textures if available, otherwise falls back to colors/shapes.
+     * Renders the maze and players. The floor texture, walls and stairs come from a cached image
+     * of the floor in view, so each frame only draws the remaining bonuses, the exit, the fog,
+     * hints and players over it. Uses textures if available, otherwise falls back to colors/shapes.
      */
     public void renderMaze() {
         if (gc == null || model == null || mazeCanvas.getWidth() <= 0 || mazeCanvas.getHeight() <= 0) {
@@ -133,71 +162,148 @@ public class MazeRenderer {
 
         gc.clearRect(0, 0, mazeCanvas.getWidth(), mazeCanvas.getHeight());
 
-        char[][] maze = model.getMaze();
+        MazeGrid maze = model.getGrid();
         int mazeSize = model.getMazeSize();
+        int viewRow = model.getViewRow();
+        int viewCol = model.getViewCol();
 
-        // Draw path/floor texture everywhere first
-        if (pathImage != null) {
-            for (int i = 0; i < mazeSize; i++) {
-                for (int j = 0; j < mazeSize; j++) {
-                    gc.drawImage(pathImage, j * currentCellSize, i * currentCellSize, currentCellSize, currentCellSize);
-                }
-            }
+        if (maze != null) {
+            int floor = model.getCurrentFloor();
+            drawStaticLayer(floor);
+            drawDynamicCells(floor);
         } else {
-            gc.setFill(Color.LIGHTSLATEGRAY); // Fallback path color
-            gc.fillRect(0, 0, mazeCanvas.getWidth(), mazeCanvas.getHeight());
+            drawMazeLayer(mazeSize, viewRow, viewCol);
         }
 
-        // Draw walls, bonuses, exit
-        for (int i = 0; i < mazeSize; i++) {
-            for (int j = 0; j < mazeSize; j++) {
-                double drawX = (double) j * currentCellSize;
-                double drawY = (double) i * currentCellSize;
-
-                if (maze[i][j] == MazeModel.WALL_CHAR) {
-                    if (wallImage != null) {
-                        gc.drawImage(wallImage, drawX, drawY, currentCellSize, currentCellSize);
-                    } else {
-                        gc.setFill(Color.DARKGRAY); // Fallback wall color
-                        gc.fillRect(drawX, drawY, currentCellSize, currentCellSize);
-                    }
-                } else if (maze[i][j] == MazeModel.BONUS_CHAR) {
-                    if (bonusImage != null) {
-                        gc.drawImage(bonusImage, drawX, drawY, currentCellSize, currentCellSize);
-                    } else {
-                        gc.setFill(Color.GOLD); // Fallback bonus
-                        gc.fillOval(drawX + currentCellSize * 0.2, drawY + currentCellSize * 0.2, 
-                                   currentCellSize * 0.6, currentCellSize * 0.6);
-                    }
-                } else if (maze[i][j] == MazeModel.EXIT_CHAR) {
-                    if (exitImage != null) {
-                        gc.drawImage(exitImage, drawX, drawY, currentCellSize, currentCellSize);
-                    } else {
-                        gc.setFill(Color.LIMEGREEN); // Fallback exit
-                        gc.fillRect(drawX + currentCellSize * 0.1, drawY + currentCellSize * 0.1, 
-                                   currentCellSize * 0.8, currentCellSize * 0.8);
-                        gc.setStroke(Color.DARKGREEN);
-                        gc.setLineWidth(2);
-                        gc.strokeRect(drawX + currentCellSize * 0.1, drawY + currentCellSize * 0.1, 
-                                     currentCellSize * 0.8, currentCellSize * 0.8);
-                    }
-                }
+        drawFog();
+
+        // Hints go under the players
+        drawHint(player1Hint, PLAYER1_HINT_COLOR);
+        drawHint(player2Hint, PLAYER2_HINT_COLOR);
+
+        drawPlayers(mazeSize, viewRow, viewCol);
+
+        // Everything is on screen now, so nothing is left to repaint
+        model.getDirtyCells().clear();
+        pendingCells.clear();
+        shownFloor = maze != null ? model.getCurrentFloor() : -1;
+        shownOverlapCell = overlapCell();
+    }
+
+    /**
+     * Repaints only the cells that changed since the last render: the cells the players left and
+     * entered, eaten dots, cells whose fog changed and hints taken away. Each one is copied back
+     * from the cached static layer with its dot, exit, fog and hint, and then the players are
+     * drawn over their freshly repainted cells. Falls back to {@link #renderMaze} when the whole
+     * view changed, such as on another floor, after too many changes, or in the endless mode.
+     */
+    public void renderChanges() {
+        if (gc == null || model == null) return;
+        MazeGrid maze = model.getGrid();
+        DirtyCellList moved = model.getDirtyCells();
+        FogOfWar fog = model.getFogOfWar();
+        int floor = maze != null ? model.getCurrentFloor() : -1;
+        if (maze == null || floor != shownFloor || staticLayers == null || staticLayers[floor] == null
+                || moved.isOverflowed() || pendingCells.isOverflowed()
+                || (fog != null && (fogImage == null || fogFloor != floor || fog.getChanges().isOverflowed()))) {
+            renderMaze();
+            return;
+        }
+
+        // The players' cells are always repainted, so their sprites never land on top of themselves
+        pendingCells.add(maze.index(model.getPlayerX(), model.getPlayerY()));
+        if (model.getGameMode() == MazeModel.DUAL_PLAYER) {
+            pendingCells.add(maze.index(model.getPlayer2X(), model.getPlayer2Y()));
+        }
+        int overlap = overlapCell();
+        if (overlap >= 0) pendingCells.add(overlap + 1);
+        if (shownOverlapCell >= 0) pendingCells.add(shownOverlapCell + 1);
+
+        if (fog != null) {
+            DirtyCellList fogChanges = fog.getChanges();
+            updateFogImage(fog);
+            for (int i = 0; i < fogChanges.size(); i++) {
+                repaintCell(fogChanges.get(i));
             }
+            fogChanges.clear();
+        }
+        for (int i = 0; i < moved.size(); i++) {
+            repaintCell(moved.get(i));
         }
+        for (int i = 0; i < pendingCells.size(); i++) {
+            repaintCell(pendingCells.get(i));
+        }
+        moved.clear();
+        pendingCells.clear();
+
+        drawPlayers(model.getMazeSize(), model.getViewRow(), model.getViewCol());
+        shownOverlapCell = overlap;
+    }
 
+    /**
+     * Redraws one cell of the floor on screen from the static layer, with what lies on top of it
+     * except the players.
+     *
+     * @param cell The flat cell index; cells on other floors are skipped
+     */
+    private void repaintCell(int cell) {
+        MazeGrid maze = model.getGrid();
+        int row = maze.rowOf(cell) - model.getViewRow();
+        int col = maze.colOf(cell);
+        if (row < 0 || row >= model.getMazeSize()) return;
+
+        double x = (double) col * currentCellSize;
+        double y = (double) row * currentCellSize;
+        gc.drawImage(staticLayers[shownFloor], x, y, currentCellSize, currentCellSize, x, y, currentCellSize, currentCellSize);
+        int type = maze.getAt(cell);
+        if (type == MazeGrid.BONUS || type == MazeGrid.EXIT) {
+            drawCell(type, x, y);
+        }
+        if (model.getFogOfWar() != null) {
+            gc.setImageSmoothing(false);
+            gc.drawImage(fogImage, col, row, 1, 1, x, y, currentCellSize, currentCellSize);
+            gc.setImageSmoothing(true);
+        }
+        if (contains(player1Hint, cell)) drawHintCell(row, col, PLAYER1_HINT_COLOR);
+        if (contains(player2Hint, cell)) drawHintCell(row, col, PLAYER2_HINT_COLOR);
+    }
+
+    private static boolean contains(int[] cells, int cell) {
+        for (int c : cells) {
+            if (c == cell) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the cell both players stand on, where player 2 is drawn shifted to the right.
+     *
+     * @return The flat cell index, or -1 if the players are apart or there is no player 2
+     */
+    private int overlapCell() {
+        MazeGrid maze = model.getGrid();
+        if (maze == null || model.getGameMode() != MazeModel.DUAL_PLAYER) return -1;
+        if (model.getPlayerX() != model.getPlayer2X() || model.getPlayerY() != model.getPlayer2Y()) return -1;
+        return maze.index(model.getPlayerX(), model.getPlayerY());
+    }
+
+    /**
+     * Draws the player sprites; player 2 only when on the floor being shown.
+     */
+    private void drawPlayers(int mazeSize, int viewRow, int viewCol) {
         // Draw player 1
-        int playerX = model.getPlayerX();
-        int playerY = model.getPlayerY();
+        int playerX = model.getPlayerX() - viewRow;
+        int playerY = model.getPlayerY() - viewCol;
         Image p1ToDraw = (player1CurrentImage != null) ? player1CurrentImage : 
                         createPlaceholderImage(Color.BLUE, currentCellSize, currentCellSize, "P1");
         gc.drawImage(p1ToDraw, playerY * currentCellSize, playerX * currentCellSize, currentCellSize, currentCellSize);
 
-        // Draw player 2 (if dual mode)
+        // Draw player 2 (if dual mode and on the floor being shown)
         if (model.getGameMode() == MazeModel.DUAL_PLAYER) {
-            int player2X = model.getPlayer2X();
-            int player2Y = model.getPlayer2Y();
+            int player2X = model.getPlayer2X() - viewRow;
+            int player2Y = model.getPlayer2Y() - viewCol;
             
-            if (player2X != -1 && player2Y != -1) {
+            if (model.getPlayer2X() != -1 && model.getPlayer2Y() != -1 && player2X >= 0 && player2X < mazeSize) {
                 Image p2ToDraw = (player2CurrentImage != null) ? player2CurrentImage : 
                                 createPlaceholderImage(Color.RED, currentCellSize, currentCellSize, "P2");
 
@@ -217,6 +323,250 @@ public class MazeRenderer {
         }
     }
 
+    /**
+     * Shows the next steps toward the exit for a player, drawing just the hinted cells over
+     * the current frame. The hint stays until {@link #clearHint} is called.
+     *
+     * @param playerNum The player number (1 or 2)
+     * @param cells The flat indices of the hinted cells
+     */
+    public void showHint(int playerNum, int[] cells) {
+        clearHint(playerNum);
+        if (playerNum == 1) {
+            player1Hint = cells;
+            drawHint(cells, PLAYER1_HINT_COLOR);
+        } else {
+            player2Hint = cells;
+            drawHint(cells, PLAYER2_HINT_COLOR);
+        }
+    }
+
+    /**
+     * Removes a player's hint; it disappears with the next render.
+     *
+     * @param playerNum The player number (1 or 2)
+     */
+    public void clearHint(int playerNum) {
+        for (int cell : playerNum == 1 ? player1Hint : player2Hint) {
+            pendingCells.add(cell);
+        }
+        if (playerNum == 1) {
+            player1Hint = new int[0];
+        } else {
+            player2Hint = new int[0];
+        }
+    }
+
+    /**
+     * Shades the hinted cells that are in view.
+     */
+    private void drawHint(int[] cells, Color color) {
+        if (cells.length == 0 || model == null || model.getGrid() == null) return;
+        MazeGrid maze = model.getGrid();
+        int mazeSize = model.getMazeSize();
+        int viewRow = model.getViewRow();
+        int viewCol = model.getViewCol();
+        for (int cell : cells) {
+            int row = maze.rowOf(cell) - viewRow;
+            int col = maze.colOf(cell) - viewCol;
+            if (row < 0 || row >= mazeSize || col < 0 || col >= mazeSize) continue;
+            drawHintCell(row, col, color);
+        }
+    }
+
+    private void drawHintCell(int row, int col, Color color) {
+        double inset = currentCellSize * 0.25;
+        gc.setFill(color);
+        gc.fillRoundRect(col * currentCellSize + inset, row * currentCellSize + inset,
+                currentCellSize - 2 * inset, currentCellSize - 2 * inset, inset, inset);
+    }
+
+    /**
+     * Covers the cells no player sees with the fog overlay, after bringing the overlay's pixels
+     * up to date for just the cells the fog reported as changed.
+     */
+    private void drawFog() {
+        FogOfWar fog = model.getFogOfWar();
+        if (fog == null) return;
+        updateFogImage(fog);
+        fog.getChanges().clear();
+
+        // One pixel per cell, scaled up without blurring the cell edges
+        int mazeSize = model.getMazeSize();
+        gc.setImageSmoothing(false);
+        gc.drawImage(fogImage, 0, 0, mazeSize * currentCellSize, mazeSize * currentCellSize);
+        gc.setImageSmoothing(true);
+    }
+
+    /**
+     * Brings the fog overlay up to date with the fog's changes, rewriting it in full only when it
+     * is new, shows another floor, or the changes overflowed. The changes are left for the caller.
+     */
+    private void updateFogImage(FogOfWar fog) {
+        MazeGrid maze = model.getGrid();
+        int mazeSize = model.getMazeSize();
+        int viewRow = model.getViewRow();
+        int firstCell = viewRow * maze.getCols();
+        int floor = model.getCurrentFloor();
+        DirtyCellList changes = fog.getChanges();
+
+        if (fogImage == null || fogFloor != floor || changes.isOverflowed()) {
+            if (fogImage == null) fogImage = new WritableImage(mazeSize, mazeSize);
+            PixelWriter pixels = fogImage.getPixelWriter();
+            for (int row = 0, cell = firstCell; row < mazeSize; row++) {
+                for (int col = 0; col < mazeSize; col++, cell++) {
+                    pixels.setArgb(col, row, fogArgb(fog.getState(cell)));
+                }
+            }
+            fogFloor = floor;
+        } else {
+            PixelWriter pixels = fogImage.getPixelWriter();
+            int endCell = firstCell + mazeSize * maze.getCols();
+            for (int i = 0; i < changes.size(); i++) {
+                int cell = changes.get(i);
+                // Other floors are redrawn in full when they come into view
+                if (cell < firstCell || cell >= endCell) continue;
+                pixels.setArgb(maze.colOf(cell), maze.rowOf(cell) - viewRow, fogArgb(fog.getState(cell)));
+            }
+        }
+    }
+
+    private static int fogArgb(int state) {
+        return state == FogOfWar.VISIBLE ? 0 : state == FogOfWar.EXPLORED ? FOG_EXPLORED_ARGB : FOG_UNSEEN_ARGB;
+    }
+
+    /**
+     * Draws the parts of a floor that never change during play from its cached image. The first
+     * time a floor is shown, its floor texture, walls and stairs are drawn cell by cell and
+     * snapshotted, and the cells holding bonus dots are noted for {@link #drawDynamicCells}.
+     *
+     * @param floor The floor to draw
+     */
+    private void drawStaticLayer(int floor) {
+        if (staticLayers == null) {
+            staticLayers = new Image[model.getFloors()];
+            bonusCells = new int[model.getFloors()][];
+        }
+        if (staticLayers[floor] != null) {
+            gc.drawImage(staticLayers[floor], 0, 0);
+            return;
+        }
+
+        MazeGrid maze = model.getGrid();
+        int mazeSize = model.getMazeSize();
+        drawFloorTexture(mazeSize);
+        int[] bonuses = new int[16];
+        int bonusCount = 0;
+        // Row-major, so the packed grid is read sequentially; floors are stacked, so the view starts at the floor's first row
+        for (int i = 0, index = model.getViewRow() * mazeSize; i < mazeSize; i++) {
+            for (int j = 0; j < mazeSize; j++, index++) {
+                int cell = maze.getAt(index);
+                if (cell == MazeGrid.BONUS) {
+                    if (bonusCount == bonuses.length) bonuses = Arrays.copyOf(bonuses, bonusCount * 2);
+                    bonuses[bonusCount++] = index;
+                } else if (cell != MazeGrid.EXIT) {
+                    drawCell(cell, (double) j * currentCellSize, (double) i * currentCellSize);
+                }
+            }
+        }
+        staticLayers[floor] = mazeCanvas.snapshot(null, null);
+        bonusCells[floor] = Arrays.copyOf(bonuses, bonusCount);
+    }
+
+    /**
+     * Draws the bonus dots still on a floor and the exit, over its static layer.
+     *
+     * @param floor The floor being shown
+     */
+    private void drawDynamicCells(int floor) {
+        MazeGrid maze = model.getGrid();
+        int viewRow = model.getViewRow();
+        for (int cell : bonusCells[floor]) {
+            if (maze.getAt(cell) == MazeGrid.BONUS) {
+                drawCell(MazeGrid.BONUS, (double) maze.colOf(cell) * currentCellSize,
+                        (double) (maze.rowOf(cell) - viewRow) * currentCellSize);
+            }
+        }
+        int exitRow = model.getExitX() - viewRow;
+        if (exitRow >= 0 && exitRow < model.getMazeSize()) {
+            drawCell(MazeGrid.EXIT, (double) model.getExitY() * currentCellSize, (double) exitRow * currentCellSize);
+        }
+    }
+
+    /**
+     * Draws every cell in view of the endless mode, whose view follows the player through the world.
+     */
+    private void drawMazeLayer(int mazeSize, int viewRow, int viewCol) {
+        drawFloorTexture(mazeSize);
+        for (int i = 0; i < mazeSize; i++) {
+            for (int j = 0; j < mazeSize; j++) {
+                drawCell(model.getCell(viewRow + i, viewCol + j), (double) j * currentCellSize, (double) i * currentCellSize);
+            }
+        }
+    }
+
+    /**
+     * Covers the view with the path texture, which shows wherever no wall or item is drawn.
+     */
+    private void drawFloorTexture(int mazeSize) {
+        if (pathImage != null) {
+            for (int i = 0; i < mazeSize; i++) {
+                for (int j = 0; j < mazeSize; j++) {
+                    gc.drawImage(pathImage, j * currentCellSize, i * currentCellSize, currentCellSize, currentCellSize);
+                }
+            }
+        } else {
+            gc.setFill(Color.LIGHTSLATEGRAY); // Fallback path color
+            gc.fillRect(0, 0, mazeCanvas.getWidth(), mazeCanvas.getHeight());
+        }
+    }
+
+    /**
+     * Draws the wall, bonus, stair or exit texture of one cell; path cells keep the floor drawn beneath.
+     *
+     * @param cell The {@link MazeGrid} cell type
+     * @param drawX The left edge in pixels
+     * @param drawY The top edge in pixels
+     */
+    private void drawCell(int cell, double drawX, double drawY) {
+        if (cell == MazeGrid.WALL) {
+            if (wallImage != null) {
+                gc.drawImage(wallImage, drawX, drawY, currentCellSize, currentCellSize);
+            } else {
+                gc.setFill(Color.DARKGRAY); // Fallback wall color
+                gc.fillRect(drawX, drawY, currentCellSize, currentCellSize);
+            }
+        } else if (cell == MazeGrid.BONUS) {
+            if (bonusImage != null) {
+                gc.drawImage(bonusImage, drawX, drawY, currentCellSize, currentCellSize);
+            } else {
+                gc.setFill(Color.GOLD); // Fallback bonus
+                gc.fillOval(drawX + currentCellSize * 0.2, drawY + currentCellSize * 0.2, 
+                           currentCellSize * 0.6, currentCellSize * 0.6);
+            }
+        } else if (cell == MazeGrid.STAIRS_UP || cell == MazeGrid.STAIRS_DOWN) {
+            // No textures for stairs; a triangle pointing the way the stairs lead
+            double left = drawX + currentCellSize * 0.2;
+            double right = drawX + currentCellSize * 0.8;
+            double tip = cell == MazeGrid.STAIRS_UP ? drawY + currentCellSize * 0.15 : drawY + currentCellSize * 0.85;
+            double base = cell == MazeGrid.STAIRS_UP ? drawY + currentCellSize * 0.85 : drawY + currentCellSize * 0.15;
+            gc.setFill(cell == MazeGrid.STAIRS_UP ? Color.SKYBLUE : Color.SIENNA);
+            gc.fillPolygon(new double[]{left, drawX + currentCellSize * 0.5, right}, new double[]{base, tip, base}, 3);
+        } else if (cell == MazeGrid.EXIT) {
+            if (exitImage != null) {
+                gc.drawImage(exitImage, drawX, drawY, currentCellSize, currentCellSize);
+            } else {
+                gc.setFill(Color.LIMEGREEN); // Fallback exit
+                gc.fillRect(drawX + currentCellSize * 0.1, drawY + currentCellSize * 0.1, 
+                           currentCellSize * 0.8, currentCellSize * 0.8);
+                gc.setStroke(Color.DARKGREEN);
+                gc.setLineWidth(2);
+                gc.strokeRect(drawX + currentCellSize * 0.1, drawY + currentCellSize * 0.1, 
+                             currentCellSize * 0.8, currentCellSize * 0.8);
+            }
+        }
+    }
+
     /**
      * Updates the player sprite direction based on movement.
      *
@@ -281,6 +631,9 @@ public class MazeRenderer {
             }
         }
         
+        // The static layers are the only thing drawn with these textures that is kept between frames
+        staticLayers = null;
+
         // After updating textures, re-render the maze
         renderMaze();
     }
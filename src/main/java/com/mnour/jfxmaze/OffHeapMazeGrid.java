@@ -0,0 +1,73 @@
+package com.mnour.jfxmaze;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * Maze grid whose packed cells live in native memory, outside the Java heap.
+ * <p>
+ * The words are held in a {@link MemorySegment} from a shared {@link Arena}, so a huge maze
+ * costs the garbage collector nothing to scan or move, and generators may still write to it from
+ * several threads. The memory stays allocated until {@link #release()} closes the arena; any
+ * access after that throws {@link IllegalStateException}.
+ */
+public final class OffHeapMazeGrid extends MazeGrid {
+    private final Arena arena;
+    private final MemorySegment words;
+
+    /**
+     * Allocates a grid of the given dimensions with every cell set to {@link #WALL}.
+     *
+     * @param rows The number of rows
+     * @param cols The number of columns
+     */
+    public OffHeapMazeGrid(int rows, int cols) {
+        super(rows, cols);
+        this.arena = Arena.ofShared();
+        // Arena memory starts zeroed, which is all walls
+        this.words = arena.allocate((long) wordCount(rows, cols) * Long.BYTES, Long.BYTES);
+    }
+
+    @Override
+    public int getAt(int index) {
+        long word = words.getAtIndex(ValueLayout.JAVA_LONG, index >>> WORD_SHIFT);
+        return (int) ((word >>> ((index & (CELLS_PER_WORD - 1)) << CELL_SHIFT)) & CELL_MASK);
+    }
+
+    @Override
+    public void setAt(int index, int type) {
+        long word = index >>> WORD_SHIFT;
+        int shift = (index & (CELLS_PER_WORD - 1)) << CELL_SHIFT;
+        long value = words.getAtIndex(ValueLayout.JAVA_LONG, word);
+        words.setAtIndex(ValueLayout.JAVA_LONG, word, (value & ~(CELL_MASK << shift)) | (((long) type & CELL_MASK) << shift));
+    }
+
+    @Override
+    public void writeWords(LongBuffer buffer) {
+        buffer.put(asLongBuffer());
+    }
+
+    @Override
+    public void readWords(LongBuffer buffer) {
+        int count = getWordCount();
+        asLongBuffer().put(buffer.slice(buffer.position(), count));
+        buffer.position(buffer.position() + count);
+    }
+
+    /**
+     * Frees the native memory at once.
+     */
+    @Override
+    public void release() {
+        if (arena.scope().isAlive()) {
+            arena.close();
+        }
+    }
+
+    private LongBuffer asLongBuffer() {
+        return words.asByteBuffer().order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+}
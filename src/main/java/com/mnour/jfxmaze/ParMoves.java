@@ -0,0 +1,174 @@
+package com.mnour.jfxmaze;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The fewest moves needed to finish a maze, used to rate how efficiently a player solved it.
+ * <p>
+ * Without bonus dots the par is the length of the shortest path from the player's own start to
+ * the exit. A player who collected dots is held to the shortest walk from their start through
+ * those dots to the exit. Generated mazes are trees, where that walk has a closed form: it
+ * crosses every edge of the subtree joining the start, the exit and the dots twice, except the
+ * edges of the start-to-exit path, which it crosses once. The subtree is found by walking from
+ * each dot toward the start until the walk meets a cell already in it, so the cost of a query is
+ * the length of the branches to the collected dots rather than a search over the whole maze.
+ * <p>
+ * Lengths are counted in moves. Stepping onto a staircase carries the player to its landing for
+ * free, so a staircase and its landing act as one cell of the tree, except that a player who
+ * wants to leave it on the floor they came from has to step off the landing and back on, which
+ * costs two more moves. Those extra moves are added for each staircase on the walk, with its
+ * branches taken in the order that needs the fewest of them.
+ * <p>
+ * Everything that needs a search is started by {@link #computeAsync} as soon as a maze is
+ * started. Player 1 reuses the distance field the model built from the start while placing the
+ * exit, so only player 2's start is searched, on a background thread. On a maze with loops the
+ * walk is taken along one shortest-path tree, so the par is an upper bound rather than exact.
+ */
+public final class ParMoves {
+    private final MazeGrid grid;
+    private final int floorRows;
+    private final int exitCell;
+    // Distances from each player's start, by player number; null for a player not in the game
+    private final DistanceField[] fromStart;
+
+    private ParMoves(MazeGrid grid, int floorRows, int exitCell, DistanceField[] fromStart) {
+        this.grid = grid;
+        this.floorRows = floorRows;
+        this.exitCell = exitCell;
+        this.fromStart = fromStart;
+    }
+
+    /**
+     * Starts working out the par of a game that is about to begin. The players' starts are read
+     * now, before anyone moves; later only the open cells are read, so players may pick up dots
+     * while the search runs.
+     *
+     * @param model The maze model, with its exit and players placed
+     * @return The par calculator once it is ready, holding null in the endless mode
+     */
+    public static CompletableFuture<ParMoves> computeAsync(MazeModel model) {
+        MazeGrid grid = model.getGrid();
+        if (grid == null) return CompletableFuture.completedFuture(null);
+        int mazeSize = model.getMazeSize();
+        int exitCell = grid.index(model.getExitX(), model.getExitY());
+        DistanceField player1 = model.getDistanceField();
+        if (model.getGameMode() != MazeModel.DUAL_PLAYER) {
+            return CompletableFuture.completedFuture(
+                    new ParMoves(grid, mazeSize, exitCell, new DistanceField[]{null, player1, null}));
+        }
+        int player2Row = model.getPlayer2X();
+        int player2Col = model.getPlayer2Y();
+        return CompletableFuture.supplyAsync(() -> new ParMoves(grid, mazeSize, exitCell,
+                new DistanceField[]{null, player1, DistanceField.compute(grid, player2Row, player2Col, mazeSize)}));
+    }
+
+    /**
+     * Gets the par for a player who collected the given dots.
+     *
+     * @param playerNum The player number (1 or 2)
+     * @param collectedCells The flat indices of the collected dots
+     * @return The fewest moves from the player's start to the exit through all of them, or
+     *         {@link DistanceField#UNREACHABLE} if the player is not in the game
+     */
+    public int forCollected(int playerNum, List<Integer> collectedCells) {
+        DistanceField field = fromStart[playerNum];
+        if (field == null || field.getAt(exitCell) == DistanceField.UNREACHABLE) return DistanceField.UNREACHABLE;
+        int shortestPath = field.getAt(exitCell);
+        boolean stairs = floorRows < grid.getRows();
+        if (collectedCells.isEmpty() && !stairs) return shortestPath;
+
+        int words = (grid.getCellCount() + 63) >>> 6;
+        long[] inTree = new long[words];
+        long[] onPath = new long[words];
+        for (int cell = exitCell; ; cell = field.stepTowardSource(grid, cell, floorRows)) {
+            inTree[cell >>> 6] |= 1L << cell;
+            onPath[cell >>> 6] |= 1L << cell;
+            if (field.getAt(cell) == 0) break;
+        }
+
+        long moves = shortestPath;
+        for (int dot : collectedCells) {
+            for (int cell = dot; (inTree[cell >>> 6] & (1L << cell)) == 0; ) {
+                inTree[cell >>> 6] |= 1L << cell;
+                int next = field.stepTowardSource(grid, cell, floorRows);
+                // One move to a neighbour, none from a staircase to its landing
+                moves += field.getAt(cell) - field.getAt(next);
+                cell = next;
+            }
+        }
+        moves = 2 * moves - shortestPath;
+        if (stairs) {
+            moves += stairDetours(field, inTree, onPath);
+        }
+        return (int) moves;
+    }
+
+    /**
+     * Counts the moves spent stepping off a landing and back on at the staircases of a walk.
+     * <p>
+     * At a staircase the walk arrives by the branch toward the start, goes down each other branch
+     * of the subtree and back, and leaves by the branch toward the exit, or by the way it came if
+     * the exit is elsewhere. Each time it leaves by a branch on the same floor as the one it came
+     * in by, the detour costs two moves. Taking the branches in an order that switches floors
+     * as often as the two sides allow keeps those detours to the fewest.
+     */
+    private long stairDetours(DistanceField field, long[] inTree, long[] onPath) {
+        int cols = grid.getCols();
+        int floorCells = floorRows * cols;
+        int[] around = {-cols, cols, -1, 1};
+        long detours = 0;
+        for (int word = 0; word < inTree.length; word++) {
+            for (long bits = inTree[word]; bits != 0; bits &= bits - 1) {
+                int lower = (word << 6) + Long.numberOfTrailingZeros(bits);
+                if (grid.getAt(lower) != MazeGrid.STAIRS_UP) continue;
+
+                // Branches by floor, 0 for the staircase's floor and 1 for its landing's
+                int distance = field.getAt(lower);
+                int firstSide = -1;
+                int lastSide = -1;
+                int[] branches = new int[2];
+                for (int side = 0; side < 2; side++) {
+                    int cell = side == 0 ? lower : lower + floorCells;
+                    for (int offset : around) {
+                        int next = cell + offset;
+                        if ((inTree[next >>> 6] & (1L << next)) == 0) continue;
+                        if (field.getAt(next) < distance) {
+                            firstSide = side;
+                        } else if ((onPath[next >>> 6] & (1L << next)) != 0) {
+                            lastSide = side;
+                        }
+                        branches[side]++;
+                    }
+                }
+                if (firstSide < 0) continue; // The walk starts here, so it never arrives
+                if (lastSide < 0) {
+                    lastSide = firstSide;
+                    branches[firstSide]++;
+                }
+
+                // Alternating runs of branches by floor; every pair of neighbours in a run is a detour
+                int runs;
+                if (firstSide == lastSide) {
+                    runs = 2 * Math.min(branches[1 - firstSide], branches[firstSide] - 1) + 1;
+                } else {
+                    runs = 2 * Math.min(branches[0], branches[1]);
+                }
+                detours += 2L * (branches[0] + branches[1] - runs);
+            }
+        }
+        return detours;
+    }
+
+    /**
+     * Rates a solution against its par.
+     *
+     * @param par The par for the solution
+     * @param moves The moves the player made
+     * @return The share of the moves that were needed, from 0 to 1
+     */
+    public static double efficiency(int par, int moves) {
+        if (par <= 0 || moves <= 0) return 0.0;
+        return (double) par / moves;
+    }
+}
@@ -0,0 +1,201 @@
+package com.mnour.jfxmaze;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ * Generator for large mazes that carves square tiles in parallel on the common fork/join pool.
+ * <p>
+ * Each tile becomes its own perfect maze, carved by a recursive backtracker on a
+ * {@link MazeRandom} region stream keyed by the tile index. The tiles are then joined along a
+ * random spanning tree of the tile lattice, opening exactly one wall on each shared border,
+ * which keeps the whole maze perfect. The random choices never depend on thread scheduling, so a seed always yields the
+ * same maze. Tile borders show up as long walls with a single gap.
+ */
+public class ParallelTiledMazeGenerator implements MazeGenerator {
+    // Rooms per tile side; a tile spans 2 * TILE_ROOMS + 1 grid cells
+    private static final int TILE_ROOMS = 128;
+    // Grid rows written by one assembly task; a multiple of CELLS_PER_WORD so no two tasks share a packed word
+    private static final int BAND_ROWS = 4 * MazeGrid.CELLS_PER_WORD;
+
+    // Openings recorded per room while carving
+    private static final byte OPEN_EAST = 1;
+    private static final byte OPEN_SOUTH = 2;
+
+    @Override
+    public String getName() {
+        return "Parallel Tiled";
+    }
+
+    @Override
+    public ConnectivityCertificate generate(MazeGrid maze, RandomGenerator random) {
+        int roomRows = maze.getRoomRows();
+        int roomCols = maze.getRoomCols();
+        int tilesDown = (roomRows + TILE_ROOMS - 1) / TILE_ROOMS;
+        int tilesAcross = (roomCols + TILE_ROOMS - 1) / TILE_ROOMS;
+        long tileSeed = random.nextLong();
+
+        // Each tile only writes the bytes of its own rooms, so the tasks never race
+        byte[] openings = new byte[maze.getRoomCount()];
+        long joins = IntStream.range(0, tilesDown * tilesAcross).parallel().mapToLong(tile ->
+                carveTile(tile / tilesAcross, tile % tilesAcross, roomRows, roomCols, openings,
+                        MazeRandom.forRegion(tileSeed, tile))).sum();
+
+        joins += stitchTiles(tilesDown, tilesAcross, roomRows, roomCols, openings, random);
+
+        int bands = (maze.getRows() + BAND_ROWS - 1) / BAND_ROWS;
+        IntStream.range(0, bands).parallel().forEach(band ->
+                writeBand(maze, band * BAND_ROWS, Math.min(maze.getRows(), (band + 1) * BAND_ROWS), openings));
+
+        return new ConnectivityCertificate(maze.getRoomCount(), joins);
+    }
+
+    /**
+     * Carves one tile with an iterative recursive backtracker, recording the openings per room.
+     *
+     * @return The number of tree joins made inside the tile
+     */
+    private long carveTile(int tileRow, int tileCol, int roomRows, int roomCols, byte[] openings, RandomGenerator random) {
+        int firstRow = tileRow * TILE_ROOMS;
+        int firstCol = tileCol * TILE_ROOMS;
+        int height = Math.min(TILE_ROOMS, roomRows - firstRow);
+        int width = Math.min(TILE_ROOMS, roomCols - firstCol);
+        int roomCount = height * width;
+
+        long[] visited = new long[(roomCount + 63) >>> 6];
+        int[] stack = new int[roomCount];
+        int[] neighbors = new int[4];
+
+        int start = random.nextInt(roomCount);
+        long joins = 0;
+        int top = 0;
+        stack[top++] = start;
+        visited[start >>> 6] |= 1L << start;
+
+        while (top > 0) {
+            int local = stack[top - 1];
+            int lr = local / width;
+            int lc = local % width;
+
+            int neighborCount = 0;
+            if (lr > 0 && !isSet(visited, local - width)) neighbors[neighborCount++] = local - width;
+            if (lr + 1 < height && !isSet(visited, local + width)) neighbors[neighborCount++] = local + width;
+            if (lc > 0 && !isSet(visited, local - 1)) neighbors[neighborCount++] = local - 1;
+            if (lc + 1 < width && !isSet(visited, local + 1)) neighbors[neighborCount++] = local + 1;
+
+            if (neighborCount == 0) {
+                top--;
+                continue;
+            }
+
+            int next = neighbors[random.nextInt(neighborCount)];
+            visited[next >>> 6] |= 1L << next;
+            stack[top++] = next;
+
+            // Openings are stored on the west/north room of each pair
+            int from = Math.min(local, next);
+            int room = (firstRow + from / width) * roomCols + firstCol + from % width;
+            openings[room] |= next / width == local / width ? OPEN_EAST : OPEN_SOUTH;
+            joins++;
+        }
+        return joins;
+    }
+
+    /**
+     * Joins the tiles along a random spanning tree of the tile lattice, one opening per tree edge.
+     * Runs sequentially on the caller's random stream so the result is deterministic.
+     *
+     * @return The number of tree joins made between tiles
+     */
+    private long stitchTiles(int tilesDown, int tilesAcross, int roomRows, int roomCols, byte[] openings, RandomGenerator random) {
+        int tileCount = tilesDown * tilesAcross;
+
+        // Candidate borders packed as tile * 2 + direction (0 = east, 1 = south), visited in shuffled order
+        int[] borders = new int[2 * tileCount];
+        int borderCount = 0;
+        for (int tile = 0; tile < tileCount; tile++) {
+            if (tile % tilesAcross + 1 < tilesAcross) borders[borderCount++] = tile << 1;
+            if (tile / tilesAcross + 1 < tilesDown) borders[borderCount++] = (tile << 1) | 1;
+        }
+        for (int i = borderCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = borders[i];
+            borders[i] = borders[j];
+            borders[j] = tmp;
+        }
+
+        int[] parent = new int[tileCount];
+        Arrays.fill(parent, -1);
+        long joins = 0;
+        for (int i = 0; i < borderCount; i++) {
+            int tile = borders[i] >>> 1;
+            boolean east = (borders[i] & 1) == 0;
+            int rootA = find(parent, tile);
+            int rootB = find(parent, east ? tile + 1 : tile + tilesAcross);
+            if (rootA == rootB) continue;
+            parent[rootB] = rootA;
+            joins++;
+
+            int tileRow = tile / tilesAcross;
+            int tileCol = tile % tilesAcross;
+            if (east) {
+                int height = Math.min(TILE_ROOMS, roomRows - tileRow * TILE_ROOMS);
+                int rr = tileRow * TILE_ROOMS + random.nextInt(height);
+                int rc = (tileCol + 1) * TILE_ROOMS - 1;
+                openings[rr * roomCols + rc] |= OPEN_EAST;
+            } else {
+                int width = Math.min(TILE_ROOMS, roomCols - tileCol * TILE_ROOMS);
+                int rr = (tileRow + 1) * TILE_ROOMS - 1;
+                int rc = tileCol * TILE_ROOMS + random.nextInt(width);
+                openings[rr * roomCols + rc] |= OPEN_SOUTH;
+            }
+        }
+        return joins;
+    }
+
+    /**
+     * Writes the carved cells of grid rows [fromRow, toRow) into the maze.
+     */
+    private void writeBand(MazeGrid maze, int fromRow, int toRow, byte[] openings) {
+        int roomRows = maze.getRoomRows();
+        int roomCols = maze.getRoomCols();
+        for (int row = Math.max(1, fromRow); row < toRow && row <= 2 * roomRows; row++) {
+            if ((row & 1) == 1) {
+                // Room row: rooms and the passages to their east
+                int first = ((row - 1) / 2) * roomCols;
+                int cell = maze.index(row, 1);
+                for (int rc = 0; rc < roomCols; rc++, cell += 2) {
+                    maze.setAt(cell, MazeGrid.PATH);
+                    if ((openings[first + rc] & OPEN_EAST) != 0) {
+                        maze.setAt(cell + 1, MazeGrid.PATH);
+                    }
+                }
+            } else {
+                // Wall row: passages to the south of the rooms above
+                int first = ((row - 2) / 2) * roomCols;
+                int cell = maze.index(row, 1);
+                for (int rc = 0; rc < roomCols; rc++, cell += 2) {
+                    if ((openings[first + rc] & OPEN_SOUTH) != 0) {
+                        maze.setAt(cell, MazeGrid.PATH);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] >= 0) {
+            int p = parent[x];
+            if (parent[p] >= 0) {
+                parent[x] = parent[p];
+            }
+            x = p;
+        }
+        return x;
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+}
@@ -0,0 +1,406 @@
+package com.mnour.jfxmaze;
+
+import java.util.Arrays;
+
+/**
+ * Reusable shortest-path and reachability queries between any two cells of a maze.
+ * <p>
+ * Offers breadth-first search, A* with a Manhattan heuristic, and bidirectional breadth-first
+ * search. All scratch state lives in primitive arrays kept between queries: an {@code int} ring
+ * buffer for each search frontier, a binary heap of packed {@code long}s for A*, a parent array,
+ * and a visited array stamped with a query number, so nothing has to be cleared or allocated
+ * per query. Only {@link #findPath} allocates, for the path it returns.
+ * <p>
+ * Cells are flat {@link MazeGrid} indices. For a maze of stacked floors the finder also follows
+ * staircases, and a path holds both a staircase and its landing. The link between them counts
+ * as one step of the search, although the game carries a player across it without a move, so a
+ * distance across floors is one more per staircase than the moves a player needs; use a
+ * {@link DistanceField} or a {@link JunctionGraph} for move counts. A finder is not thread-safe;
+ * give each thread its own.
+ */
+public final class PathFinder {
+    public static final int UNREACHABLE = -1;
+
+    /**
+     * The available search algorithms.
+     */
+    public enum Algorithm {
+        BFS, A_STAR, BIDIRECTIONAL
+    }
+
+    private static final int INITIAL_QUEUE_CAPACITY = 1024;
+
+    private final MazeGrid grid;
+    private final int rows;
+    private final int cols;
+    private final int floorRows;
+    private final int floorCells;
+    private final int cellCount;
+
+    // Visited marks: a cell is visited in the current query if its stamp equals the current one;
+    // bidirectional searches use stamp for the forward side and stamp + 1 for the backward side
+    private final int[] visited;
+    private int stamp = 0;
+    // Previous cell on the path from the search's source; only meaningful for visited cells
+    private final int[] parent;
+    // Steps from the source, or f = g + h packed into the heap for A*
+    private final int[] cost;
+
+    // Ring buffers for the frontiers; capacity is always a power of two
+    private int[] queue = new int[INITIAL_QUEUE_CAPACITY];
+    private int[] backwardQueue = new int[INITIAL_QUEUE_CAPACITY];
+    // Binary min-heap of (f << 32 | cell) for A*
+    private long[] heap = new long[INITIAL_QUEUE_CAPACITY];
+
+    private final int[] neighbors = new int[5];
+    // Cells reached by the last query, for comparing the algorithms
+    private int lastVisited;
+    // Cells on either side of the link where the two bidirectional frontiers met
+    private int meetingForward;
+    private int meetingBackward;
+
+    /**
+     * Creates a finder for a single-floor maze.
+     *
+     * @param grid The maze
+     */
+    public PathFinder(MazeGrid grid) {
+        this(grid, grid.getRows());
+    }
+
+    /**
+     * Creates a finder for a maze whose floors are stacked row-wise and joined by staircases.
+     *
+     * @param grid The maze
+     * @param floorRows The number of rows per floor
+     */
+    public PathFinder(MazeGrid grid, int floorRows) {
+        this.grid = grid;
+        this.rows = grid.getRows();
+        this.cols = grid.getCols();
+        this.floorRows = floorRows;
+        this.floorCells = floorRows * cols;
+        this.cellCount = grid.getCellCount();
+        this.visited = new int[cellCount];
+        this.parent = new int[cellCount];
+        this.cost = new int[cellCount];
+    }
+
+    /**
+     * Checks whether one cell can be reached from another.
+     *
+     * @param from The flat index of the start cell
+     * @param to The flat index of the target cell
+     * @return true if both cells are open and connected
+     */
+    public boolean isReachable(int from, int to) {
+        return distance(Algorithm.BIDIRECTIONAL, from, to) != UNREACHABLE;
+    }
+
+    /**
+     * Gets the length of the shortest path between two cells.
+     *
+     * @param algorithm The search to run
+     * @param from The flat index of the start cell
+     * @param to The flat index of the target cell
+     * @return The number of steps, or {@link #UNREACHABLE}
+     */
+    public int distance(Algorithm algorithm, int from, int to) {
+        if (grid.getAt(from) == MazeGrid.WALL || grid.getAt(to) == MazeGrid.WALL) {
+            return UNREACHABLE;
+        }
+        return switch (algorithm) {
+            case BFS -> bfs(from, to);
+            case A_STAR -> aStar(from, to);
+            case BIDIRECTIONAL -> bidirectional(from, to);
+        };
+    }
+
+    /**
+     * Finds a shortest path between two cells.
+     *
+     * @param algorithm The search to run
+     * @param from The flat index of the start cell
+     * @param to The flat index of the target cell
+     * @return The flat indices of the cells on the path, from start to target inclusive, or null if unreachable
+     */
+    public int[] findPath(Algorithm algorithm, int from, int to) {
+        int length = distance(algorithm, from, to);
+        if (length == UNREACHABLE) return null;
+
+        int[] path = new int[length + 1];
+        if (length == 0) {
+            path[0] = from;
+            return path;
+        }
+        if (algorithm != Algorithm.BIDIRECTIONAL) {
+            for (int cell = to, i = length; i >= 0; i--) {
+                path[i] = cell;
+                cell = parent[cell];
+            }
+            return path;
+        }
+
+        // Parents lead from each meeting cell back to the end its side started from
+        for (int cell = meetingForward, i = cost[meetingForward]; i >= 0; i--) {
+            path[i] = cell;
+            cell = parent[cell];
+        }
+        for (int cell = meetingBackward, i = cost[meetingForward] + 1; i <= length; i++) {
+            path[i] = cell;
+            cell = parent[cell];
+        }
+        return path;
+    }
+
+    /**
+     * Plain breadth-first search from the start until the target is dequeued.
+     */
+    private int bfs(int from, int to) {
+        int mark = nextStamp(1);
+        int mask = queue.length - 1;
+        int head = 0;
+        int tail = 0;
+        visit(from, from, 0, mark);
+        queue[tail++ & mask] = from;
+
+        while (head != tail) {
+            int cell = queue[head++ & mask];
+            if (cell == to) return cost[cell];
+            int next = cost[cell] + 1;
+            int count = collectNeighbors(cell);
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                if (visited[neighbor] == mark) continue;
+                visit(neighbor, cell, next, mark);
+                if (tail - head == queue.length) {
+                    growQueue(head);
+                    tail = tail - head;
+                    head = 0;
+                    mask = queue.length - 1;
+                }
+                queue[tail++ & mask] = neighbor;
+            }
+        }
+        return UNREACHABLE;
+    }
+
+    /**
+     * A* with the Manhattan distance within a floor plus the number of floors between the cells,
+     * which never overestimates since each step moves one cell or one floor.
+     */
+    private int aStar(int from, int to) {
+        int mark = nextStamp(1);
+        int targetRow = to / cols;
+        int targetCol = to - targetRow * cols;
+        int size = 0;
+        visit(from, from, 0, mark);
+        size = heapPush(size, heuristic(from, targetRow, targetCol), from);
+
+        while (size > 0) {
+            long top = heap[0];
+            size = heapPop(size);
+            int cell = (int) top;
+            int g = cost[cell];
+            // Stale entry: the cell was reached more cheaply after this one was pushed
+            if ((int) (top >>> 32) != g + heuristic(cell, targetRow, targetCol)) continue;
+            if (cell == to) return g;
+
+            int count = collectNeighbors(cell);
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                if (visited[neighbor] == mark && cost[neighbor] <= g + 1) continue;
+                visit(neighbor, cell, g + 1, mark);
+                size = heapPush(size, g + 1 + heuristic(neighbor, targetRow, targetCol), neighbor);
+            }
+        }
+        return UNREACHABLE;
+    }
+
+    /**
+     * Breadth-first search from both ends, expanding the smaller frontier one full level at a time
+     * until the two meet.
+     */
+    private int bidirectional(int from, int to) {
+        if (from == to) {
+            return 0;
+        }
+        int forward = nextStamp(2);
+        int backward = forward + 1;
+        visit(from, from, 0, forward);
+        visit(to, to, 0, backward);
+
+        int forwardHead = 0;
+        int forwardTail = 0;
+        queue[forwardTail++] = from;
+        int backwardHead = 0;
+        int backwardTail = 0;
+        backwardQueue[backwardTail++] = to;
+
+        int best = UNREACHABLE;
+        while (forwardHead != forwardTail && backwardHead != backwardTail) {
+            boolean expandForward = forwardTail - forwardHead <= backwardTail - backwardHead;
+            int side = expandForward ? forward : backward;
+            int other = expandForward ? backward : forward;
+            int[] ring = expandForward ? queue : backwardQueue;
+            int head = expandForward ? forwardHead : backwardHead;
+            int tail = expandForward ? forwardTail : backwardTail;
+            int mask = ring.length - 1;
+
+            // One full level, so every meeting found at this depth is seen before choosing the shortest
+            int levelEnd = tail;
+            while (head != levelEnd) {
+                int cell = ring[head++ & mask];
+                int next = cost[cell] + 1;
+                int count = collectNeighbors(cell);
+                for (int i = 0; i < count; i++) {
+                    int neighbor = neighbors[i];
+                    int mark = visited[neighbor];
+                    if (mark == side) continue;
+                    if (mark == other) {
+                        int length = next + cost[neighbor];
+                        if (best == UNREACHABLE || length < best) {
+                            best = length;
+                            meetingForward = expandForward ? cell : neighbor;
+                            meetingBackward = expandForward ? neighbor : cell;
+                        }
+                        continue;
+                    }
+                    visit(neighbor, cell, next, side);
+                    if (tail - head == ring.length) {
+                        ring = expandForward ? growQueue(head) : growBackwardQueue(head);
+                        tail = tail - head;
+                        levelEnd = levelEnd - head;
+                        head = 0;
+                        mask = ring.length - 1;
+                    }
+                    ring[tail++ & mask] = neighbor;
+                }
+            }
+
+            if (expandForward) {
+                forwardHead = head;
+                forwardTail = tail;
+            } else {
+                backwardHead = head;
+                backwardTail = tail;
+            }
+            if (best != UNREACHABLE) {
+                return best;
+            }
+        }
+        return UNREACHABLE;
+    }
+
+    /**
+     * Marks a cell visited for the given side and records how it was reached.
+     */
+    private void visit(int cell, int from, int steps, int mark) {
+        lastVisited++;
+        visited[cell] = mark;
+        parent[cell] = from;
+        cost[cell] = steps;
+    }
+
+    /**
+     * Fills {@link #neighbors} with the open cells one step from the given cell.
+     *
+     * @return The number of neighbours
+     */
+    private int collectNeighbors(int cell) {
+        int count = 0;
+        int row = cell / cols;
+        int col = cell - row * cols;
+        if (row > 0 && grid.getAt(cell - cols) != MazeGrid.WALL) neighbors[count++] = cell - cols;
+        if (row + 1 < rows && grid.getAt(cell + cols) != MazeGrid.WALL) neighbors[count++] = cell + cols;
+        if (col > 0 && grid.getAt(cell - 1) != MazeGrid.WALL) neighbors[count++] = cell - 1;
+        if (col + 1 < cols && grid.getAt(cell + 1) != MazeGrid.WALL) neighbors[count++] = cell + 1;
+        int type = grid.getAt(cell);
+        int landing = type == MazeGrid.STAIRS_UP ? cell + floorCells : type == MazeGrid.STAIRS_DOWN ? cell - floorCells : -1;
+        if (landing >= 0 && landing < cellCount && grid.getAt(landing) != MazeGrid.WALL) neighbors[count++] = landing;
+        return count;
+    }
+
+    private int heuristic(int cell, int targetRow, int targetCol) {
+        int row = cell / cols;
+        int col = cell - row * cols;
+        int floorDelta = Math.abs(row / floorRows - targetRow / floorRows);
+        return Math.abs(row % floorRows - targetRow % floorRows) + Math.abs(col - targetCol) + floorDelta;
+    }
+
+    /**
+     * Starts a new query, reserving the given number of stamp values.
+     * Clears the visited array only when the stamps wrap around.
+     *
+     * @return The first stamp value of the query
+     */
+    private int nextStamp(int count) {
+        if (stamp > Integer.MAX_VALUE - count) {
+            Arrays.fill(visited, 0);
+            stamp = 0;
+        }
+        int first = stamp + 1;
+        stamp += count;
+        lastVisited = 0;
+        return first;
+    }
+
+    private int heapPush(int size, int priority, int cell) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        long entry = ((long) priority << 32) | (cell & 0xFFFFFFFFL);
+        int i = size;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heap[up] <= entry) break;
+            heap[i] = heap[up];
+            i = up;
+        }
+        heap[i] = entry;
+        return size + 1;
+    }
+
+    private int heapPop(int size) {
+        long last = heap[--size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+            if (heap[child] >= last) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        if (size > 0) heap[i] = last;
+        return size;
+    }
+
+    /**
+     * Doubles the forward ring buffer, unrolling its contents to start at index 0.
+     */
+    private int[] growQueue(int head) {
+        queue = unroll(queue, head);
+        return queue;
+    }
+
+    private int[] growBackwardQueue(int head) {
+        backwardQueue = unroll(backwardQueue, head);
+        return backwardQueue;
+    }
+
+    /**
+     * Gets the number of cells the last query reached, counting cells reached again by A* more than once.
+     */
+    public int getLastVisitedCount() {
+        return lastVisited;
+    }
+
+    private static int[] unroll(int[] ring, int head) {
+        int[] grown = new int[ring.length * 2];
+        int start = head & (ring.length - 1);
+        System.arraycopy(ring, start, grown, 0, ring.length - start);
+        System.arraycopy(ring, 0, grown, ring.length - start, start);
+        return grown;
+    }
+}
@@ -0,0 +1,118 @@
+package com.mnour.jfxmaze;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Randomized Prim's algorithm, starting from the top-left room.
+ * <p>
+ * The frontier holds packed cell indices in a plain int array; a random entry is taken out
+ * by swapping in the last one, and a bitmap tells whether a cell is already queued. Nothing
+ * is allocated per processed cell, so generation runs in time linear in the cell count.
+ * Produces many short dead ends.
+ * <p>
+ * The classic variant shifts the remaining entries down instead of swapping, like the
+ * original list-based generator did. That makes it quadratic, but together with
+ * {@link MazeRandom#legacy(long)} it reproduces the mazes of seeds recorded back then.
+ */
+public class PrimMazeGenerator implements MazeGenerator {
+    private final boolean classic;
+
+    /**
+     * Creates a Prim generator.
+     *
+     * @param classic true to keep the frontier order of the original generator
+     */
+    public PrimMazeGenerator(boolean classic) {
+        this.classic = classic;
+    }
+
+    @Override
+    public String getName() {
+        return classic ? "Classic Prim" : "Prim";
+    }
+
+    /**
+     * Checks whether this generator reproduces the original frontier order.
+     */
+    public boolean isClassic() {
+        return classic;
+    }
+
+    @Override
+    public ConnectivityCertificate generate(MazeGrid maze, RandomGenerator random) {
+        int rows = maze.getRows();
+        int cols = maze.getCols();
+        maze.set(1, 1, MazeGrid.PATH);
+
+        // Every frontier cell is a room cell (odd row and column), so that bounds the array
+        int[] frontier = new int[maze.getRoomCount()];
+        long[] inFrontier = new long[(maze.getCellCount() + 63) >>> 6];
+        int[] neighbors = new int[4];
+
+        int frontierSize = addFrontierCells(maze, maze.index(1, 1), frontier, 0, inFrontier);
+        long joins = 0;
+
+        while (frontierSize > 0) {
+            int pick = random.nextInt(frontierSize);
+            int cell = frontier[pick];
+            if (classic) {
+                System.arraycopy(frontier, pick + 1, frontier, pick, --frontierSize - pick);
+            } else {
+                frontier[pick] = frontier[--frontierSize];
+            }
+
+            int r = maze.rowOf(cell);
+            int c = maze.colOf(cell);
+
+            // Collect already carved cells two steps away
+            int neighborCount = 0;
+            if (r - 2 > 0 && maze.getAt(cell - 2 * cols) == MazeGrid.PATH) neighbors[neighborCount++] = cell - 2 * cols;
+            if (r + 2 < rows - 1 && maze.getAt(cell + 2 * cols) == MazeGrid.PATH) neighbors[neighborCount++] = cell + 2 * cols;
+            if (c - 2 > 0 && maze.getAt(cell - 2) == MazeGrid.PATH) neighbors[neighborCount++] = cell - 2;
+            if (c + 2 < cols - 1 && maze.getAt(cell + 2) == MazeGrid.PATH) neighbors[neighborCount++] = cell + 2;
+
+            if (neighborCount > 0) {
+                int chosenNeighbor = neighbors[random.nextInt(neighborCount)];
+
+                // The wall between two cells in the same row or column sits at the midpoint index
+                maze.setAt((cell + chosenNeighbor) >>> 1, MazeGrid.PATH);
+                maze.setAt(cell, MazeGrid.PATH);
+                joins++;
+
+                frontierSize = addFrontierCells(maze, cell, frontier, frontierSize, inFrontier);
+            }
+        }
+        return new ConnectivityCertificate(maze.getRoomCount(), joins);
+    }
+
+    /**
+     * Adds the uncarved cells two steps away from a cell to the frontier, skipping cells
+     * that are already queued.
+     *
+     * @param maze The grid being carved
+     * @param cell The flat index of the newly carved cell
+     * @param frontier The frontier of packed cell indices
+     * @param frontierSize The number of cells currently in the frontier
+     * @param inFrontier Bitmap of the cells that have been queued
+     * @return The new frontier size
+     */
+    private int addFrontierCells(MazeGrid maze, int cell, int[] frontier, int frontierSize, long[] inFrontier) {
+        int cols = maze.getCols();
+        int r = maze.rowOf(cell);
+        int c = maze.colOf(cell);
+        if (r - 2 > 0) frontierSize = addFrontierCell(maze, cell - 2 * cols, frontier, frontierSize, inFrontier);
+        if (r + 2 < maze.getRows() - 1) frontierSize = addFrontierCell(maze, cell + 2 * cols, frontier, frontierSize, inFrontier);
+        if (c - 2 > 0) frontierSize = addFrontierCell(maze, cell - 2, frontier, frontierSize, inFrontier);
+        if (c + 2 < cols - 1) frontierSize = addFrontierCell(maze, cell + 2, frontier, frontierSize, inFrontier);
+        return frontierSize;
+    }
+
+    private int addFrontierCell(MazeGrid maze, int cell, int[] frontier, int frontierSize, long[] inFrontier) {
+        long bit = 1L << cell; // shift uses the low 6 bits only
+        if (maze.getAt(cell) == MazeGrid.WALL && (inFrontier[cell >>> 6] & bit) == 0) {
+            inFrontier[cell >>> 6] |= bit;
+            frontier[frontierSize++] = cell;
+        }
+        return frontierSize;
+    }
+}
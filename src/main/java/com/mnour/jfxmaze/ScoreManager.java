@@ -6,8 +6,10 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
 import java.util.Scanner;
 
 /**
@@ -15,6 +17,14 @@ import java.util.Scanner;
  */
 public class ScoreManager {
     private static final String SCORE_FILE = "jfxmaze_scores.txt";
+
+    /**
+     * Orders scores from the most efficient route down; records without a par come last.
+     */
+    public static final Comparator<Score> BY_EFFICIENCY = Comparator.comparingDouble((Score score) -> score.efficiency)
+            .reversed()
+            .thenComparingInt(score -> score.moves);
+
     private List<Score> scores = new ArrayList<>();
     
     /**
@@ -33,13 +43,13 @@ public class ScoreManager {
             
             while (scanner.hasNextLine()) {
                 String line = scanner.nextLine();
-                if (line.startsWith("Player: ")) {
-                    // Start of a new score record
+                if (line.startsWith("Player: ") || line.startsWith("Player Name: ")) {
+                    // Start of a new score record; the game screen writes "Player Name:"
                     if (currentScore != null) {
                         scores.add(currentScore); // Add the previous score
                     }
                     currentScore = new Score();
-                    currentScore.playerName = line.substring("Player: ".length());
+                    currentScore.playerName = line.substring(line.indexOf(": ") + 2);
                 } else if (currentScore != null) {
                     if (line.startsWith("Won As: Player ")) {
                         currentScore.playerNumber = Integer.parseInt(line.substring("Won As: Player ".length()));
@@ -47,11 +57,18 @@ public class ScoreManager {
                         currentScore.score = Integer.parseInt(line.substring("Score (Dots): ".length()));
                     } else if (line.startsWith("Moves: ")) {
                         currentScore.moves = Integer.parseInt(line.substring("Moves: ".length()));
+                    } else if (line.startsWith("Par Moves: ")) {
+                        currentScore.parMoves = Integer.parseInt(line.substring("Par Moves: ".length()));
+                    } else if (line.startsWith("Efficiency: ")) {
+                        String efficiencyStr = line.substring("Efficiency: ".length()).replace("%", "");
+                        currentScore.efficiency = Double.parseDouble(efficiencyStr) / 100;
                     } else if (line.startsWith("Time: ")) {
                         String timeStr = line.substring("Time: ".length());
                         currentScore.timeTaken = Integer.parseInt(timeStr.split(" ")[0]); // Extract seconds
                     } else if (line.startsWith("Maze Seed: ")) {
                         currentScore.seed = Long.parseLong(line.substring("Maze Seed: ".length()));
+                    } else if (line.startsWith("Maze Algorithm: ")) {
+                        currentScore.algorithm = line.substring("Maze Algorithm: ".length());
                     } else if (line.startsWith("Maze Size: ")) {
                         String sizeStr = line.substring("Maze Size: ".length());
                         currentScore.mazeSize = Integer.parseInt(sizeStr.split("x")[0]); // Extract first number
@@ -90,14 +107,16 @@ public class ScoreManager {
      * @param playerNumber The player number (1 or 2)
      * @param score The score achieved
      * @param moves The number of moves made
+     * @param parMoves The fewest moves the route could have taken, or -1 if unknown
      * @param timeTaken The time taken in seconds
      * @param seed The maze seed
+     * @param algorithm The name of the algorithm that generated the maze
      * @param mazeSize The maze size
      * @param gameMode The game mode (SINGLE_PLAYER or DUAL_PLAYER)
      * @return true if the score was saved successfully, false otherwise
      */
-    public boolean saveScore(String playerName, int playerNumber, int score, int moves, 
-                          int timeTaken, long seed, int mazeSize, int gameMode) {
+    public boolean saveScore(String playerName, int playerNumber, int score, int moves, int parMoves,
+                          int timeTaken, long seed, String algorithm, int mazeSize, int gameMode) {
         try {
             File scoreFile = new File(SCORE_FILE);
             FileWriter writer = new FileWriter(scoreFile, true); // Append mode
@@ -108,8 +127,13 @@ public class ScoreManager {
             writer.write("Won As: Player " + playerNumber + "\n");
             writer.write("Score (Dots): " + score + "\n");
             writer.write("Moves: " + moves + "\n");
+            if (parMoves > 0) {
+                writer.write("Par Moves: " + parMoves + "\n");
+                writer.write(String.format(Locale.ROOT, "Efficiency: %.1f%%\n", 100 * ParMoves.efficiency(parMoves, moves)));
+            }
             writer.write("Time: " + timeTaken + " seconds\n");
             writer.write("Maze Seed: " + seed + "\n");
+            writer.write("Maze Algorithm: " + algorithm + "\n");
             writer.write("Maze Size: " + mazeSize + "x" + mazeSize + "\n");
             writer.write("Mode: " + (gameMode == MazeModel.SINGLE_PLAYER ? "Single Player" : "Dual Player") + "\n");
             writer.write("Date: " + dateStr + "\n");
@@ -122,8 +146,13 @@ public class ScoreManager {
             newScore.playerNumber = playerNumber;
             newScore.score = score;
             newScore.moves = moves;
+            if (parMoves > 0) {
+                newScore.parMoves = parMoves;
+                newScore.efficiency = ParMoves.efficiency(parMoves, moves);
+            }
             newScore.timeTaken = timeTaken;
             newScore.seed = seed;
+            newScore.algorithm = algorithm;
             newScore.mazeSize = mazeSize;
             newScore.isSinglePlayer = (gameMode == MazeModel.SINGLE_PLAYER);
             newScore.date = dateStr;
@@ -161,6 +190,17 @@ public class ScoreManager {
     public List<Score> getAllScores() {
         return new ArrayList<>(scores); // Return a copy
     }
+
+    /**
+     * Gets all scores, most efficient first.
+     *
+     * @return A sorted list of all scores
+     */
+    public List<Score> getScoresByEfficiency() {
+        List<Score> sorted = new ArrayList<>(scores);
+        sorted.sort(BY_EFFICIENCY);
+        return sorted;
+    }
     
     /**
      * Clears all scores for a specific player.
@@ -188,8 +228,8 @@ public class ScoreManager {
             }
             
             for (Score score : remainingScores) {
-                saveScore(score.playerName, score.playerNumber, score.score, score.moves,
-                       score.timeTaken, score.seed, score.mazeSize,
+                saveScore(score.playerName, score.playerNumber, score.score, score.moves, score.parMoves,
+                       score.timeTaken, score.seed, score.algorithm, score.mazeSize,
                        score.isSinglePlayer ? MazeModel.SINGLE_PLAYER : MazeModel.DUAL_PLAYER);
             }
             
@@ -211,16 +251,20 @@ public class ScoreManager {
         public int playerNumber;
         public int score;
         public int moves;
+        public int parMoves; // 0 for records saved before par was tracked
+        public double efficiency;
         public int timeTaken;
         public long seed;
+        public String algorithm = MazeGenerators.CLASSIC_PRIM.getName(); // Records predating the choice used the original generator
         public int mazeSize;
         public boolean isSinglePlayer;
         public String date;
         
         @Override
         public String toString() {
-            return String.format("%s - Score: %d, Moves: %d, Time: %ds, %s",
-                    playerName, score, moves, timeTaken,
+            String par = parMoves > 0 ? String.format(" (Par: %d, Efficiency: %.1f%%)", parMoves, 100 * efficiency) : "";
+            return String.format("%s - Score: %d, Moves: %d%s, Time: %ds, %s",
+                    playerName, score, moves, par, timeTaken,
                     isSinglePlayer ? "Single Player" : "Dual Player");
         }
     }
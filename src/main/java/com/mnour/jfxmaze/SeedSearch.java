@@ -0,0 +1,165 @@
+package com.mnour.jfxmaze;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Finds seeds whose mazes match a difficulty, by generating many candidates in parallel.
+ * <p>
+ * Candidate seeds are drawn from a {@link SplittableRandom} seeded by the caller, so a search is
+ * repeatable, and the candidates are built and measured with {@link MazeMetrics} on the common
+ * fork/join pool. Because every generator has its own typical shape, the presets do not use fixed
+ * score limits: {@link Difficulty} bands are slices of the candidates ranked by score, so "Hard"
+ * always means harder than most mazes of the same size and algorithm.
+ */
+public final class SeedSearch {
+    // Cells built per search; keeps small mazes at a few thousand candidates and large ones affordable
+    private static final long CELL_BUDGET = 4_000_000;
+    private static final int MIN_CANDIDATES = 64;
+    private static final int MAX_CANDIDATES = 4096;
+
+    /**
+     * Difficulty presets, each a band of the candidates ranked from easiest to hardest.
+     */
+    public enum Difficulty {
+        EASY("Easy", 0.0, 1.0 / 3),
+        NORMAL("Normal", 1.0 / 3, 2.0 / 3),
+        HARD("Hard", 2.0 / 3, 1.0);
+
+        private final String displayName;
+        private final double fromRank;
+        private final double toRank;
+
+        Difficulty(String displayName, double fromRank, double toRank) {
+            this.displayName = displayName;
+            this.fromRank = fromRank;
+            this.toRank = toRank;
+        }
+
+        public String getDisplayName() { return displayName; }
+
+        /**
+         * Looks up a preset by its display name.
+         *
+         * @param name The display name
+         * @return The preset, or null if the name is not a preset
+         */
+        public static Difficulty forName(String name) {
+            for (Difficulty difficulty : values()) {
+                if (difficulty.displayName.equals(name)) {
+                    return difficulty;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A measured candidate seed.
+     */
+    public record Candidate(long seed, MazeMetrics metrics) {}
+
+    private SeedSearch() {
+    }
+
+    /**
+     * Gets the number of candidates a preset search builds for a maze size.
+     *
+     * @param mazeSize The maze size
+     * @return The candidate count
+     */
+    public static int candidateCount(int mazeSize) {
+        long perCandidate = (long) mazeSize * mazeSize;
+        return (int) Math.max(MIN_CANDIDATES, Math.min(MAX_CANDIDATES, CELL_BUDGET / perCandidate));
+    }
+
+    /**
+     * Builds and measures candidate mazes in parallel.
+     *
+     * @param mazeSize The maze size
+     * @param gameMode The game mode
+     * @param generator The algorithm that carves the mazes
+     * @param searchSeed The seed the candidate seeds are drawn from
+     * @param count The number of candidates
+     * @return The candidates, in the order their seeds were drawn
+     */
+    public static List<Candidate> evaluate(int mazeSize, int gameMode, MazeGenerator generator, long searchSeed, int count) {
+        // Drawn up front so the candidates do not depend on thread scheduling
+        SplittableRandom seeds = new SplittableRandom(searchSeed);
+        long[] candidateSeeds = new long[count];
+        for (int i = 0; i < count; i++) {
+            candidateSeeds[i] = seeds.nextLong(1, Long.MAX_VALUE);
+        }
+
+        Candidate[] candidates = new Candidate[count];
+        IntStream.range(0, count).parallel().forEach(i -> {
+            MazeModel model = new MazeModel(mazeSize, gameMode, candidateSeeds[i], generator);
+            candidates[i] = new Candidate(candidateSeeds[i], MazeMetrics.measure(model));
+            model.release();
+        });
+        return Arrays.asList(candidates);
+    }
+
+    /**
+     * Finds seeds whose difficulty score lies within the given limits.
+     *
+     * @param mazeSize The maze size
+     * @param gameMode The game mode
+     * @param generator The algorithm that carves the mazes
+     * @param searchSeed The seed the candidate seeds are drawn from
+     * @param count The number of candidates to build
+     * @param minScore The lowest accepted {@link MazeMetrics#getDifficultyScore() score}
+     * @param maxScore The highest accepted score
+     * @return The matching candidates, easiest first
+     */
+    public static List<Candidate> search(int mazeSize, int gameMode, MazeGenerator generator, long searchSeed, int count,
+                                         double minScore, double maxScore) {
+        List<Candidate> matches = new ArrayList<>();
+        for (Candidate candidate : evaluate(mazeSize, gameMode, generator, searchSeed, count)) {
+            double score = candidate.metrics().getDifficultyScore();
+            if (score >= minScore && score <= maxScore) {
+                matches.add(candidate);
+            }
+        }
+        matches.sort(Comparator.comparingDouble(candidate -> candidate.metrics().getDifficultyScore()));
+        return matches;
+    }
+
+    /**
+     * Finds the candidates that fall within a difficulty preset.
+     *
+     * @param mazeSize The maze size
+     * @param gameMode The game mode
+     * @param generator The algorithm that carves the mazes
+     * @param difficulty The preset
+     * @param searchSeed The seed the candidate seeds are drawn from
+     * @return The candidates in the preset's band, easiest first
+     */
+    public static List<Candidate> search(int mazeSize, int gameMode, MazeGenerator generator, Difficulty difficulty,
+                                         long searchSeed) {
+        List<Candidate> ranked = new ArrayList<>(evaluate(mazeSize, gameMode, generator, searchSeed, candidateCount(mazeSize)));
+        ranked.sort(Comparator.comparingDouble(candidate -> candidate.metrics().getDifficultyScore()));
+        int from = (int) Math.floor(difficulty.fromRank * ranked.size());
+        int to = Math.max(from + 1, (int) Math.ceil(difficulty.toRank * ranked.size()));
+        return ranked.subList(from, Math.min(to, ranked.size()));
+    }
+
+    /**
+     * Picks one seed for a difficulty preset: the median candidate of its band.
+     *
+     * @param mazeSize The maze size
+     * @param gameMode The game mode
+     * @param generator The algorithm that carves the mazes
+     * @param difficulty The preset
+     * @param searchSeed The seed the candidate seeds are drawn from
+     * @return The maze seed
+     */
+    public static long findSeed(int mazeSize, int gameMode, MazeGenerator generator, Difficulty difficulty, long searchSeed) {
+        List<Candidate> band = search(mazeSize, gameMode, generator, difficulty, searchSeed);
+        return band.get(band.size() / 2).seed();
+    }
+}
@@ -369,10 +369,31 @@ public class SettingsController {
             for (String line : reversedLines) {
                 scoreText.append(line).append("\n");
             }
-            textArea.setText(scoreText.toString());
+            String newestFirstText = scoreText.toString();
+            textArea.setText(newestFirstText);
+
+            // Sort order: the raw records newest first, or ranked by route efficiency
+            ComboBox<String> sortBox = new ComboBox<>();
+            sortBox.getItems().addAll("Newest First", "Best Efficiency");
+            sortBox.setValue("Newest First");
+            sortBox.setOnAction(e -> {
+                if ("Best Efficiency".equals(sortBox.getValue())) {
+                    scoreManager.loadScores();
+                    StringBuilder rankedText = new StringBuilder();
+                    int rank = 1;
+                    for (ScoreManager.Score score : scoreManager.getScoresByEfficiency()) {
+                        rankedText.append(rank++).append(". ").append(score).append("\n");
+                    }
+                    textArea.setText(rankedText.toString());
+                    dialog.setHeaderText("High Scores (Best Efficiency)");
+                } else {
+                    textArea.setText(newestFirstText);
+                    dialog.setHeaderText("High Scores (Newest First)");
+                }
+            });
 
             // Add text area to dialog
-            VBox content = new VBox(textArea);
+            VBox content = new VBox(sortBox, textArea);
             content.setSpacing(10);
             VBox.setVgrow(textArea, Priority.ALWAYS);
             dialog.getDialogPane().setContent(content);
@@ -0,0 +1,49 @@
+package com.mnour.jfxmaze;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Sidewinder algorithm: rows are split into horizontal runs, each joined to the row above once.
+ * <p>
+ * Works one row at a time and produces long horizontal corridors with a clear top row.
+ */
+public class SidewinderMazeGenerator implements MazeGenerator {
+
+    @Override
+    public String getName() {
+        return "Sidewinder";
+    }
+
+    @Override
+    public ConnectivityCertificate generate(MazeGrid maze, RandomGenerator random) {
+        int roomRows = maze.getRoomRows();
+        int roomCols = maze.getRoomCols();
+
+        // Each run joins the row above exactly once and the rooms of a run join each other, so every passage is a tree edge
+        long joins = 0;
+        for (int rr = 0; rr < roomRows; rr++) {
+            int runStart = 0;
+            for (int rc = 0; rc < roomCols; rc++) {
+                int room = rr * roomCols + rc;
+                maze.setAt(maze.roomToCell(room), MazeGrid.PATH);
+
+                boolean atEastEdge = rc + 1 == roomCols;
+                boolean closeRun = atEastEdge || (rr > 0 && random.nextBoolean());
+
+                if (closeRun) {
+                    // Join a random room of the run to the row above
+                    if (rr > 0) {
+                        int pick = runStart + random.nextInt(rc - runStart + 1);
+                        maze.openPassage(rr * roomCols + pick, (rr - 1) * roomCols + pick);
+                        joins++;
+                    }
+                    runStart = rc + 1;
+                } else {
+                    maze.openPassage(room, room + 1);
+                    joins++;
+                }
+            }
+        }
+        return new ConnectivityCertificate(maze.getRoomCount(), joins);
+    }
+}
@@ -12,11 +12,7 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.stage.Stage;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.Optional;
 
 /**
@@ -38,6 +34,8 @@ public class UIScreens {
     private long seedForRestart = 0;
     private int mazeSizeForRestart = MazeModel.DEFAULT_SIZE;
     private int gameModeForRestart = MazeModel.SINGLE_PLAYER;
+    private MazeGenerator generatorForRestart = MazeGenerators.DEFAULT;
+    private int floorsForRestart = 1;
     
     public UIScreens(Stage primaryStage, GameController gameController) {
         this.primaryStage = primaryStage;
@@ -90,10 +88,14 @@ public class UIScreens {
         singlePlayerRadio.getStyleClass().add("custom-radio-button");
         RadioButton dualPlayerRadio = new RadioButton("Dual Player");
         dualPlayerRadio.getStyleClass().add("custom-radio-button");
+        RadioButton endlessRadio = new RadioButton("Endless");
+        endlessRadio.getStyleClass().add("custom-radio-button");
+        endlessRadio.setTooltip(new Tooltip("A single player maze without an end. The size sets how much of it is shown around you."));
 
         ToggleGroup gameModeGroup = new ToggleGroup();
         singlePlayerRadio.setToggleGroup(gameModeGroup);
         dualPlayerRadio.setToggleGroup(gameModeGroup);
+        endlessRadio.setToggleGroup(gameModeGroup);
 
         // Create maze size label and value display
         Label mazeSizeLabel = new Label("Maze Size:");
@@ -151,16 +153,86 @@ public class UIScreens {
         seedInfoLabel.getStyleClass().add("info-label-small");
         seedInfoLabel.setWrapText(true);
 
+        // Generation algorithm selection
+        Label algorithmLabel = new Label("Algorithm:");
+        algorithmLabel.getStyleClass().add("custom-label");
+
+        ComboBox<String> algorithmBox = new ComboBox<>();
+        for (MazeGenerator generator : MazeGenerators.getAll()) {
+            algorithmBox.getItems().add(generator.getName());
+        }
+        algorithmBox.setTooltip(new Tooltip("The algorithm that carves the maze. Each one gives the maze a different texture."));
+
+        // Difficulty preset, used when no seed is given
+        Label difficultyLabel = new Label("Difficulty:");
+        difficultyLabel.getStyleClass().add("custom-label");
+
+        ComboBox<String> difficultyBox = new ComboBox<>();
+        difficultyBox.getItems().add("Any");
+        for (SeedSearch.Difficulty difficulty : SeedSearch.Difficulty.values()) {
+            difficultyBox.getItems().add(difficulty.getDisplayName());
+        }
+        difficultyBox.setValue("Any");
+        difficultyBox.setTooltip(new Tooltip("With a blank seed, searches many mazes for one of this difficulty. Single floor only; not used in endless mode."));
+
+        // Number of floors, joined by staircases
+        Label floorsLabel = new Label("Floors:");
+        floorsLabel.getStyleClass().add("custom-label");
+
+        ComboBox<Integer> floorsBox = new ComboBox<>();
+        for (int floors = 1; floors <= MazeModel.MAX_FLOORS; floors++) {
+            floorsBox.getItems().add(floors);
+        }
+        floorsBox.setTooltip(new Tooltip("Stack several floors of the same size, joined by stairs. Not used in endless or dual player mode."));
+        // The screen shows one floor at a time, so both players have to share it
+        floorsBox.disableProperty().bind(dualPlayerRadio.selectedProperty());
+
+        // Fog of war
+        Label fogLabel = new Label("Visibility:");
+        fogLabel.getStyleClass().add("custom-label");
+
+        CheckBox fogBox = new CheckBox("Fog of war");
+        fogBox.setSelected(gameController.isFogOfWar());
+        fogBox.setTooltip(new Tooltip("Only show what the players can see from where they stand, and what they have already seen. Not used in endless mode."));
+        fogBox.disableProperty().bind(endlessRadio.selectedProperty());
+
+        // Who plays player 2 in dual player mode
+        Label opponentLabel = new Label("Player 2:");
+        opponentLabel.getStyleClass().add("custom-label");
+
+        ComboBox<String> opponentBox = new ComboBox<>();
+        opponentBox.getItems().add("Human");
+        for (MazeBot.Strategy strategy : MazeBot.Strategy.values()) {
+            opponentBox.getItems().add(strategy.getDisplayName());
+        }
+        MazeBot.Strategy currentStrategy = gameController.getBotStrategy();
+        opponentBox.setValue(currentStrategy != null ? currentStrategy.getDisplayName() : "Human");
+        opponentBox.setTooltip(new Tooltip("Let the computer play player 2 with one of these strategies. Single floor only."));
+
+        ComboBox<String> botSkillBox = new ComboBox<>();
+        for (BotOpponent.Skill skill : BotOpponent.Skill.values()) {
+            botSkillBox.getItems().add(skill.getDisplayName());
+        }
+        botSkillBox.setValue(gameController.getBotSkill().getDisplayName());
+        botSkillBox.setTooltip(new Tooltip("How fast the bot moves and how often it takes a wrong turn."));
+        opponentBox.disableProperty().bind(dualPlayerRadio.selectedProperty().not());
+        botSkillBox.disableProperty().bind(dualPlayerRadio.selectedProperty().not()
+                .or(opponentBox.valueProperty().isEqualTo("Human")));
+
         // Autofill logic
         if (useCustomSettingsForRestart) { // Coming from in-game restart
             if (gameModeForRestart == MazeModel.SINGLE_PLAYER) {
                 singlePlayerRadio.setSelected(true);
+            } else if (gameModeForRestart == MazeModel.ENDLESS) {
+                endlessRadio.setSelected(true);
             } else {
                 dualPlayerRadio.setSelected(true);
             }
             mazeSizeSlider.setValue(mazeSizeForRestart);
             mazeSizeValueLabel.setText(String.valueOf(mazeSizeForRestart));
             seedField.setText(String.valueOf(seedForRestart));
+            algorithmBox.setValue(generatorForRestart.getName());
+            floorsBox.setValue(floorsForRestart);
             useCustomSettingsForRestart = false; // Reset flag after using
         } else { // Coming from "Play Game" or direct "Custom Game"
             if (defaultMode == MazeModel.SINGLE_PLAYER) {
@@ -171,6 +243,8 @@ public class UIScreens {
             mazeSizeSlider.setValue(defaultSize);
             mazeSizeValueLabel.setText(String.valueOf(defaultSize));
             seedField.setText(defaultSeedStr);
+            algorithmBox.setValue(MazeGenerators.DEFAULT.getName());
+            floorsBox.setValue(1);
         }
 
         GridPane grid = new GridPane();
@@ -180,7 +254,7 @@ public class UIScreens {
         grid.getStyleClass().add("dialog-grid-pane");
 
         grid.add(new Label("Mode:"), 0, 0);
-        HBox modeBox = new HBox(15, singlePlayerRadio, dualPlayerRadio);
+        HBox modeBox = new HBox(15, singlePlayerRadio, dualPlayerRadio, endlessRadio);
         modeBox.setAlignment(Pos.CENTER_LEFT);
         grid.add(modeBox, 1, 0);
 
@@ -191,9 +265,26 @@ public class UIScreens {
         sliderBox.setAlignment(Pos.CENTER_LEFT);
         grid.add(sliderBox, 1, 1);
         
-        grid.add(seedLabel, 0, 2);
-        grid.add(seedField, 1, 2);
-        grid.add(seedInfoLabel, 1, 3); // Add the seed info label
+        grid.add(algorithmLabel, 0, 2);
+        grid.add(algorithmBox, 1, 2);
+
+        grid.add(floorsLabel, 0, 3);
+        grid.add(floorsBox, 1, 3);
+
+        grid.add(difficultyLabel, 0, 4);
+        grid.add(difficultyBox, 1, 4);
+
+        grid.add(fogLabel, 0, 5);
+        grid.add(fogBox, 1, 5);
+
+        grid.add(opponentLabel, 0, 6);
+        HBox opponentRow = new HBox(10, opponentBox, botSkillBox);
+        opponentRow.setAlignment(Pos.CENTER_LEFT);
+        grid.add(opponentRow, 1, 6);
+
+        grid.add(seedLabel, 0, 7);
+        grid.add(seedField, 1, 7);
+        grid.add(seedInfoLabel, 1, 8); // Add the seed info label
 
         dialog.getDialogPane().setContent(grid);
         mazeSizeSlider.requestFocus();
@@ -201,7 +292,8 @@ public class UIScreens {
         Optional<ButtonType> result = dialog.showAndWait();
 
         if (result.isPresent() && result.get() == playButtonType) {
-            int gameMode = dualPlayerRadio.isSelected() ? MazeModel.DUAL_PLAYER : MazeModel.SINGLE_PLAYER;
+            int gameMode = dualPlayerRadio.isSelected() ? MazeModel.DUAL_PLAYER
+                    : endlessRadio.isSelected() ? MazeModel.ENDLESS : MazeModel.SINGLE_PLAYER;
 
             int tempSize = (int) mazeSizeSlider.getValue();
             if (tempSize % 2 == 0) {
@@ -217,24 +309,35 @@ public class UIScreens {
 
             long seed;
             String seedText = seedField.getText().trim();
+            MazeGenerator generator = MazeGenerators.forName(algorithmBox.getValue());
+            int floors = gameMode == MazeModel.DUAL_PLAYER ? 1 : floorsBox.getValue();
+            gameController.setFogOfWar(fogBox.isSelected());
+            if (gameMode == MazeModel.DUAL_PLAYER) {
+                gameController.setBotOpponent(MazeBot.Strategy.forName(opponentBox.getValue()),
+                        BotOpponent.Skill.forName(botSkillBox.getValue()));
+            }
             
+            SeedSearch.Difficulty difficulty = SeedSearch.Difficulty.forName(difficultyBox.getValue());
+            if (seedText.isEmpty() && difficulty != null && floors == 1 && gameMode != MazeModel.ENDLESS) {
+                gameController.startDifficultyGameFXML(gameMode, mazeSize, generator, difficulty);
+                return;
+            }
             if (seedText.isEmpty()) {
-                // Generate a random seed if field is empty
-                seed = System.currentTimeMillis();
-                if (seed == 0) seed = 1;
-            } else {
-                try {
-                    // Try parsing as a number first
-                    seed = Long.parseLong(seedText);
-                    if (seed == 0) seed = 1; // Avoid zero seed
-                } catch (NumberFormatException e) {
-                    // If not a number, convert the text to a consistent hash value
-                    seed = convertTextToSeed(seedText);
-                }
+                // Pick a random seed, taking a maze built in the background if one is ready
+                gameController.startNewGameFXML(gameMode, mazeSize, generator, floors);
+                return;
+            }
+            try {
+                // Try parsing as a number first
+                seed = Long.parseLong(seedText);
+                if (seed == 0) seed = 1; // Avoid zero seed
+            } catch (NumberFormatException e) {
+                // If not a number, convert the text to a consistent hash value
+                seed = convertTextToSeed(seedText);
             }
 
             // Start game with FXML directly
-            gameController.startGameFXML(gameMode, mazeSize, seed);
+            gameController.startGameFXML(gameMode, mazeSize, seed, generator, floors);
         } else {
             // User cancelled or closed dialog
             if (isFreshPlay) {
@@ -271,12 +374,16 @@ public class UIScreens {
     }
     
     public void saveScore(int winningPlayer, int score, int moves, int timeTaken, int gameMode) {
+        saveScore(winningPlayer, score, moves, timeTaken, gameMode, -1);
+    }
+
+    public void saveScore(int winningPlayer, int score, int moves, int timeTaken, int gameMode, int parMoves) {
         String playerNameForRecord;
 
         if (gameMode == MazeModel.SINGLE_PLAYER) {
             playerNameForRecord = (currentLoggedInUsername != null && !currentLoggedInUsername.trim().isEmpty()) ? currentLoggedInUsername.trim() : "Anonymous Hero";
             // Directly proceed to saving for single player
-            writeScoreToFile(playerNameForRecord, winningPlayer, score, moves, timeTaken, gameMode);
+            writeScoreToFile(playerNameForRecord, winningPlayer, score, moves, timeTaken, gameMode, parMoves);
         } else { // DUAL_PLAYER mode
             Dialog<String> dialog = new Dialog<>();
             dialog.setTitle("Save Your Epic Score!");
@@ -317,7 +424,7 @@ public class UIScreens {
             Optional<String> result = dialog.showAndWait();
             if (result.isPresent()) {
                 playerNameForRecord = result.get().trim().isEmpty() ? ("Player " + winningPlayer) : result.get().trim();
-                writeScoreToFile(playerNameForRecord, winningPlayer, score, moves, timeTaken, gameMode);
+                writeScoreToFile(playerNameForRecord, winningPlayer, score, moves, timeTaken, gameMode, parMoves);
             } else {
                 // User cancelled dialog, maybe show main menu or do nothing further for score saving
                 // showWelcomeScreen(); // Optionally go to welcome screen if save is cancelled
@@ -325,46 +432,29 @@ public class UIScreens {
         }
     }
     
-    private void writeScoreToFile(String playerName, int winningPlayer, int score, int moves, int timeTaken, int gameMode) {
-        try {
-            // Ensure ScoreManager is used if it handles file path/logic, or keep direct file writing here.
-            // For now, direct file writing as per original structure in the prompt.
-            File scoreFile = new File("jfxmaze_scores.txt"); 
-            FileWriter writer = new FileWriter(scoreFile, true); // Append mode
-            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
-            writer.write("Player Name: " + playerName + "\n");
-            if (gameMode == MazeModel.DUAL_PLAYER) {
-                writer.write("Won As: Player " + winningPlayer + "\n");
-            }
-            writer.write("Score (Dots): " + score + "\n");
-            writer.write("Moves: " + moves + "\n");
-            writer.write("Time: " + timeTaken + " seconds\n");
-            writer.write("Maze Seed: " + gameController.getMazeSeed() + "\n");
-            writer.write("Maze Size: " + gameController.getMazeSize() + "x" + gameController.getMazeSize() + "\n");
-            writer.write("Mode: " + (gameMode == MazeModel.SINGLE_PLAYER ? "Single Player" : "Dual Player") + "\n");
-            writer.write("User Logged In: " + (currentLoggedInUsername != null ? currentLoggedInUsername : "N/A") + "\n"); // Added logged in user context
-            writer.write("Date: " + dateFormat.format(new Date()) + "\n");
-            writer.write("----------------------------------------\n");
-            writer.close();
-
+    private void writeScoreToFile(String playerName, int winningPlayer, int score, int moves, int timeTaken, int gameMode, int parMoves) {
+        boolean saved = gameController.getScoreManager().saveScore(playerName, winningPlayer, score, moves, parMoves, timeTaken,
+                gameController.getMazeSeed(), gameController.getMazeGenerator().getName(), gameController.getMazeSize(), gameMode);
+        if (saved) {
             Alert infoAlert = new Alert(Alert.AlertType.INFORMATION, "Score saved for " + playerName + "!");
             infoAlert.setHeaderText(null);
             applyDialogStyles(infoAlert.getDialogPane());
             infoAlert.showAndWait();
-        } catch (IOException e) {
-            Alert errorAlert = new Alert(Alert.AlertType.ERROR, "Could not save score: " + e.getMessage());
+        } else {
+            Alert errorAlert = new Alert(Alert.AlertType.ERROR, "Could not save score.");
             errorAlert.setHeaderText("Save Failed");
             applyDialogStyles(errorAlert.getDialogPane());
             errorAlert.showAndWait();
         }
     }
     
-    public void setCustomSettingsForRestart(long seed, int mazeSize, int gameMode) {
+    public void setCustomSettingsForRestart(long seed, int mazeSize, int gameMode, MazeGenerator generator, int floors) {
         this.useCustomSettingsForRestart = true;
         this.seedForRestart = seed;
         this.mazeSizeForRestart = mazeSize;
         this.gameModeForRestart = gameMode;
+        this.generatorForRestart = generator;
+        this.floorsForRestart = floors;
     }
     
     private void applyStylesheets(Scene scene) {
@@ -434,6 +524,15 @@ public class UIScreens {
      * This method will be used for testing the FXML version without disrupting the existing flow.
      */
     public void showEndGameScreenFXML(int winner, int score, int moves, int elapsedTime) {
+        showEndGameScreenFXML(winner, score, moves, elapsedTime, -1);
+    }
+
+    /**
+     * Shows the end game screen with the par for the winner's route.
+     *
+     * @param parMoves The fewest moves the winner's route could have taken, or -1 if unknown
+     */
+    public void showEndGameScreenFXML(int winner, int score, int moves, int elapsedTime, int parMoves) {
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("endgame.fxml"));
             Scene scene = new Scene(loader.load(), fixedStageWidth, fixedStageHeight);
@@ -446,6 +545,7 @@ public class UIScreens {
                     score,
                     moves,
                     elapsedTime,
+                    parMoves,
                     gameController.getGameMode(),
                     gameController,
                     this,
@@ -0,0 +1,67 @@
+package com.mnour.jfxmaze;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Wilson's algorithm: loop-erased random walks grafted onto a growing tree.
+ * <p>
+ * Samples uniformly among all perfect mazes, so it has no directional bias, but the first
+ * walks are long and it is the slowest of the built-in generators.
+ */
+public class WilsonMazeGenerator implements MazeGenerator {
+
+    @Override
+    public String getName() {
+        return "Wilson";
+    }
+
+    @Override
+    public ConnectivityCertificate generate(MazeGrid maze, RandomGenerator random) {
+        int roomRows = maze.getRoomRows();
+        int roomCols = maze.getRoomCols();
+        int roomCount = maze.getRoomCount();
+
+        long[] inTree = new long[(roomCount + 63) >>> 6];
+        // Direction the walk last left each room; overwriting it erases loops implicitly
+        int[] next = new int[roomCount];
+        int[] neighbors = new int[4];
+
+        long joins = 0;
+        int root = random.nextInt(roomCount);
+        inTree[root >>> 6] |= 1L << root;
+        maze.setAt(maze.roomToCell(root), MazeGrid.PATH);
+
+        for (int start = 0; start < roomCount; start++) {
+            if (isSet(inTree, start)) continue;
+
+            // Random walk until the tree is hit
+            int room = start;
+            while (!isSet(inTree, room)) {
+                int rr = room / roomCols;
+                int rc = room % roomCols;
+                int neighborCount = 0;
+                if (rr > 0) neighbors[neighborCount++] = room - roomCols;
+                if (rr + 1 < roomRows) neighbors[neighborCount++] = room + roomCols;
+                if (rc > 0) neighbors[neighborCount++] = room - 1;
+                if (rc + 1 < roomCols) neighbors[neighborCount++] = room + 1;
+
+                next[room] = neighbors[random.nextInt(neighborCount)];
+                room = next[room];
+            }
+
+            // Retrace the loop-erased path and add it to the tree
+            room = start;
+            while (!isSet(inTree, room)) {
+                inTree[room >>> 6] |= 1L << room;
+                maze.openPassage(room, next[room]);
+                joins++;
+                room = next[room];
+            }
+        }
+        return new ConnectivityCertificate(roomCount, joins);
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+}
@@ -0,0 +1,87 @@
+package com.mnour.jfxmaze;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plays random moves in fog-of-war games and checks that what each player sees, kept up to date
+ * one move at a time, is what a fresh cast from where the player stands would light.
+ */
+class FogOfWarTest {
+    private static final int SIZE = 41;
+    private static final int MOVES = 1000;
+    // Moves between full comparisons
+    private static final int CHECK_EVERY = 25;
+
+    @Test
+    void incrementalVisibilityMatchesFreshCast() {
+        for (long seed = 1; seed <= 10; seed++) {
+            for (int floors : new int[]{1, 3}) {
+                int gameMode = floors == 1 ? MazeModel.DUAL_PLAYER : MazeModel.SINGLE_PLAYER;
+                MazeGenerator generator = MazeGenerators.getAll().get((int) (seed % MazeGenerators.getAll().size()));
+                MazeModel model = new MazeModel(SIZE, gameMode, seed, generator,
+                        MazeModel.DEFAULT_EXIT_DIFFICULTY, MazeModel.CLASSIC_BONUS_DENSITY, floors);
+                model.enableFogOfWar();
+                playAndCompare(model, new SplittableRandom(seed), generator.getName() + " seed " + seed + " floors " + floors);
+                model.release();
+            }
+        }
+    }
+
+    @Test
+    void changesListEveryCellWhoseStateChanged() {
+        MazeModel model = new MazeModel(SIZE, MazeModel.DUAL_PLAYER, 4, MazeGenerators.DEFAULT);
+        model.enableFogOfWar();
+        FogOfWar fog = model.getFogOfWar();
+        int cellCount = model.getGrid().getCellCount();
+        int[] shown = new int[cellCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            shown[cell] = fog.getState(cell);
+        }
+        fog.getChanges().clear();
+
+        SplittableRandom random = new SplittableRandom(4);
+        for (int move = 0; move < MOVES && model.getWinner() == 0; move++) {
+            int direction = random.nextInt(4);
+            model.movePlayer(1 + random.nextInt(2), MazeBot.dx(direction), MazeBot.dy(direction));
+            DirtyCellList changes = fog.getChanges();
+            assertFalse(changes.isOverflowed(), "A single move overflowed the change list");
+            for (int i = 0; i < changes.size(); i++) {
+                shown[changes.get(i)] = fog.getState(changes.get(i));
+            }
+            changes.clear();
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            assertEquals(fog.getState(cell), shown[cell], "Cell " + cell + " changed without being listed");
+        }
+    }
+
+    private static void playAndCompare(MazeModel model, SplittableRandom random, String game) {
+        FogOfWar fog = model.getFogOfWar();
+        MazeGrid grid = model.getGrid();
+        int players = model.getGameMode() == MazeModel.DUAL_PLAYER ? 2 : 1;
+        for (int move = 0; move < MOVES && model.getWinner() == 0; move++) {
+            int direction = random.nextInt(4);
+            model.movePlayer(1 + random.nextInt(players), MazeBot.dx(direction), MazeBot.dy(direction));
+            fog.getChanges().clear();
+            if (move % CHECK_EVERY != 0) continue;
+
+            for (int player = 1; player <= players; player++) {
+                int row = player == 1 ? model.getPlayerX() : model.getPlayer2X();
+                int col = player == 1 ? model.getPlayerY() : model.getPlayer2Y();
+                FogOfWar fresh = new FogOfWar(grid, SIZE, players, MazeModel.FOG_RADIUS);
+                fresh.update(player, row, col);
+                for (int cell = 0; cell < grid.getCellCount(); cell++) {
+                    assertEquals(fresh.isVisible(player, cell), fog.isVisible(player, cell),
+                            game + " move " + move + " player " + player + " cell " + cell);
+                }
+                assertTrue(fog.isExplored(player, grid.index(row, col)), game + " move " + move);
+            }
+        }
+    }
+}
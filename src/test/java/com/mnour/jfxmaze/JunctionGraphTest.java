@@ -0,0 +1,80 @@
+package com.mnour.jfxmaze;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks {@link JunctionGraph} distances against a {@link DistanceField} over the full grid,
+ * which counts moves the same way, with a staircase free to cross.
+ */
+class JunctionGraphTest {
+    private static final int SIZE = 31;
+    private static final int QUERIES = 200;
+
+    @Test
+    void matchesDistanceFieldOnEveryGenerator() {
+        SplittableRandom random = new SplittableRandom(9);
+        for (MazeGenerator generator : MazeGenerators.getAll()) {
+            for (int floors = 1; floors <= 3; floors++) {
+                MazeModel model = new MazeModel(SIZE, MazeModel.SINGLE_PLAYER, 5 + floors, generator,
+                        MazeModel.DEFAULT_EXIT_DIFFICULTY, MazeModel.CLASSIC_BONUS_DENSITY, floors);
+                checkDistances(model, random, generator.getName() + " floors " + floors);
+            }
+        }
+    }
+
+    @Test
+    void matchesDistanceFieldOnMazesWithLoops() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (MazeGenerator generator : MazeGenerators.getAll()) {
+            for (int floors = 1; floors <= 3; floors++) {
+                MazeModel model = new MazeModel(SIZE, MazeModel.SINGLE_PLAYER, 5 + floors, generator,
+                        MazeModel.DEFAULT_EXIT_DIFFICULTY, MazeModel.CLASSIC_BONUS_DENSITY, floors);
+                // Open walls of the first floor, so corridors meet again and junctions have several routes
+                MazeGrid grid = model.getGrid();
+                for (int i = 0; i < 40; i++) {
+                    int row = 1 + random.nextInt(SIZE - 2);
+                    int col = 1 + random.nextInt(SIZE - 2);
+                    if (grid.get(row, col) == MazeGrid.WALL) grid.set(row, col, MazeGrid.PATH);
+                }
+                checkDistances(model, random, generator.getName() + " floors " + floors + " with loops");
+            }
+        }
+    }
+
+    @Test
+    void collapsesCorridorsIntoFewerNodes() {
+        MazeModel model = new MazeModel(SIZE, MazeModel.DUAL_PLAYER, 1, MazeGenerators.DEFAULT);
+        MazeGrid grid = model.getGrid();
+        JunctionGraph graph = model.getJunctionGraph();
+        int open = 0;
+        for (int cell = 0; cell < grid.getCellCount(); cell++) {
+            if (grid.getAt(cell) != MazeGrid.WALL) open++;
+        }
+        assertTrue(graph.getNodeCount() < open / 2, graph.getNodeCount() + " nodes for " + open + " open cells");
+        // The starts and the exit stay nodes, wherever they lie in a corridor
+        assertTrue(graph.getNodeOf(grid.index(1, 1)) >= 0);
+        assertTrue(graph.getNodeOf(grid.index(model.getPlayer2X(), model.getPlayer2Y())) >= 0);
+        assertTrue(graph.getNodeOf(grid.index(model.getExitX(), model.getExitY())) >= 0);
+    }
+
+    private static void checkDistances(MazeModel model, SplittableRandom random, String maze) {
+        MazeGrid grid = model.getGrid();
+        int start = grid.index(1, 1);
+        int exit = grid.index(model.getExitX(), model.getExitY());
+        JunctionGraph graph = new JunctionGraph(grid, SIZE, new int[]{start, exit});
+        for (int query = 0; query < QUERIES; query++) {
+            int from = query == 0 ? start : random.nextInt(grid.getCellCount());
+            int to = query == 0 ? exit : random.nextInt(grid.getCellCount());
+            int expected = grid.getAt(from) == MazeGrid.WALL || grid.getAt(to) == MazeGrid.WALL
+                    ? JunctionGraph.UNREACHABLE
+                    : DistanceField.compute(grid, grid.rowOf(from), grid.colOf(from), SIZE).getAt(to);
+            assertEquals(expected, graph.distance(from, to), maze + ": " + from + " to " + to);
+        }
+        model.release();
+    }
+}
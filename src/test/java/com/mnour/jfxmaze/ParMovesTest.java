@@ -0,0 +1,120 @@
+package com.mnour.jfxmaze;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the par against a breadth-first search over every pair of a cell and the set of dots
+ * collected on the way there, moving the way the game does: one move per step, with a step onto
+ * a staircase landing on the next floor.
+ */
+class ParMovesTest {
+    // Dots a player collects in one check; the search has a state per cell for each subset
+    private static final int MAX_DOTS = 6;
+    private static final double BONUS_DENSITY = 0.1;
+
+    @Test
+    void matchesBruteForceOnMultiFloorMazes() {
+        for (MazeGenerator generator : MazeGenerators.getAll()) {
+            for (long seed = 1; seed <= 12; seed++) {
+                int size = 5 + 2 * (int) (seed % 6);
+                int floors = 2 + (int) (seed % 3);
+                checkPar(new MazeModel(size, MazeModel.SINGLE_PLAYER, seed, generator,
+                        MazeModel.DEFAULT_EXIT_DIFFICULTY, BONUS_DENSITY, floors), seed);
+            }
+        }
+    }
+
+    @Test
+    void matchesBruteForceForBothPlayersOfDualGames() {
+        for (MazeGenerator generator : MazeGenerators.getAll()) {
+            for (long seed = 1; seed <= 12; seed++) {
+                int size = 5 + 2 * (int) (seed % 8);
+                checkPar(new MazeModel(size, MazeModel.DUAL_PLAYER, seed, generator,
+                        MazeModel.DEFAULT_EXIT_DIFFICULTY, BONUS_DENSITY), seed);
+            }
+        }
+    }
+
+    @Test
+    void efficiencyIsTheShareOfNeededMoves() {
+        assertEquals(1.0, ParMoves.efficiency(20, 20));
+        assertEquals(0.5, ParMoves.efficiency(20, 40));
+        assertEquals(0.0, ParMoves.efficiency(-1, 40));
+        assertEquals(0.0, ParMoves.efficiency(20, 0));
+    }
+
+    private static void checkPar(MazeModel model, long seed) {
+        MazeGrid grid = model.getGrid();
+        ParMoves par = ParMoves.computeAsync(model).join();
+        SplittableRandom random = new SplittableRandom(seed);
+        int exit = grid.index(model.getExitX(), model.getExitY());
+        int players = model.getGameMode() == MazeModel.DUAL_PLAYER ? 2 : 1;
+        for (int player = 1; player <= players; player++) {
+            int start = player == 1 ? grid.index(model.getPlayerX(), model.getPlayerY())
+                    : grid.index(model.getPlayer2X(), model.getPlayer2Y());
+            List<Integer> dots = new ArrayList<>();
+            for (int cell = 0; cell < grid.getCellCount(); cell++) {
+                if (grid.getAt(cell) == MazeGrid.BONUS) dots.add(cell);
+            }
+            while (dots.size() > MAX_DOTS) {
+                dots.remove(random.nextInt(dots.size()));
+            }
+
+            String game = model.getGenerator().getName() + " seed " + seed + " floors " + model.getFloors()
+                    + " player " + player;
+            assertEquals(fewestMoves(grid, model.getMazeSize(), start, exit, List.of()),
+                    par.forCollected(player, List.of()), game + " without dots");
+            assertEquals(fewestMoves(grid, model.getMazeSize(), start, exit, dots),
+                    par.forCollected(player, dots), game + " through " + dots);
+        }
+        model.release();
+    }
+
+    /**
+     * Finds the fewest moves from the start to the exit that pass over every given dot.
+     */
+    private static int fewestMoves(MazeGrid grid, int floorRows, int start, int exit, List<Integer> dots) {
+        int cols = grid.getCols();
+        int floorCells = floorRows * cols;
+        int subsets = 1 << dots.size();
+        int[] moves = new int[grid.getCellCount() * subsets];
+        Arrays.fill(moves, -1);
+
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        int first = start * subsets + collect(start, 0, dots);
+        moves[first] = 0;
+        queue.add(first);
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int cell = state / subsets;
+            int collected = state % subsets;
+            if (cell == exit && collected == subsets - 1) return moves[state];
+
+            for (int next : new int[]{cell - cols, cell + cols, cell - 1, cell + 1}) {
+                int type = grid.getAt(next);
+                if (type == MazeGrid.WALL) continue;
+                int landing = type == MazeGrid.STAIRS_UP ? next + floorCells
+                        : type == MazeGrid.STAIRS_DOWN ? next - floorCells : next;
+                int nextState = landing * subsets + collect(landing, collected, dots);
+                if (moves[nextState] < 0) {
+                    moves[nextState] = moves[state] + 1;
+                    queue.add(nextState);
+                }
+            }
+        }
+        return DistanceField.UNREACHABLE;
+    }
+
+    private static int collect(int cell, int collected, List<Integer> dots) {
+        int dot = dots.indexOf(cell);
+        return dot >= 0 ? collected | (1 << dot) : collected;
+    }
+}
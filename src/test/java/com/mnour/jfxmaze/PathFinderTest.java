@@ -0,0 +1,132 @@
+package com.mnour.jfxmaze;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks every search of {@link PathFinder} against a {@link DistanceField} from the query's
+ * start, on mazes with loops knocked into them and on stacked floors.
+ */
+class PathFinderTest {
+    private static final int SIZE = 31;
+    private static final int QUERIES = 100;
+
+    @Test
+    void matchesDistanceFieldOnMazesWithLoops() {
+        SplittableRandom random = new SplittableRandom(5);
+        for (MazeGenerator generator : MazeGenerators.getAll()) {
+            MazeModel model = new MazeModel(SIZE, MazeModel.SINGLE_PLAYER, 77, generator);
+            MazeGrid grid = model.getGrid();
+            // Open some walls, so the shortest path is no longer the only path
+            for (int i = 0; i < 30; i++) {
+                int row = 1 + random.nextInt(SIZE - 2);
+                int col = 1 + random.nextInt(SIZE - 2);
+                if (grid.get(row, col) == MazeGrid.WALL) grid.set(row, col, MazeGrid.PATH);
+            }
+
+            PathFinder finder = new PathFinder(grid);
+            for (int query = 0; query < QUERIES; query++) {
+                int from = randomCell(grid, random, query);
+                int to = randomCell(grid, random, query);
+                int expected = grid.getAt(from) == MazeGrid.WALL || grid.getAt(to) == MazeGrid.WALL
+                        ? PathFinder.UNREACHABLE
+                        : DistanceField.compute(grid, grid.rowOf(from), grid.colOf(from)).getAt(to);
+                for (PathFinder.Algorithm algorithm : PathFinder.Algorithm.values()) {
+                    String message = generator.getName() + " " + algorithm + " " + from + " to " + to;
+                    assertEquals(expected, finder.distance(algorithm, from, to), message);
+                    assertEquals(expected != PathFinder.UNREACHABLE, finder.isReachable(from, to), message);
+                    checkPath(grid, SIZE, finder.findPath(algorithm, from, to), from, to, expected, message);
+                }
+            }
+            model.release();
+        }
+    }
+
+    @Test
+    void countsEachStaircaseAsOneStepAcrossFloors() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (MazeGenerator generator : MazeGenerators.getAll()) {
+            for (int floors = 2; floors <= 3; floors++) {
+                MazeModel model = new MazeModel(SIZE, MazeModel.SINGLE_PLAYER, 77 + floors, generator,
+                        MazeModel.DEFAULT_EXIT_DIFFICULTY, MazeModel.CLASSIC_BONUS_DENSITY, floors);
+                MazeGrid grid = model.getGrid();
+                PathFinder finder = new PathFinder(grid, SIZE);
+                for (int query = 0; query < QUERIES; query++) {
+                    int from = grid.roomToCell(random.nextInt(grid.getRoomCount()));
+                    int to = grid.roomToCell(random.nextInt(grid.getRoomCount()));
+                    int moves = DistanceField.compute(grid, grid.rowOf(from), grid.colOf(from), SIZE).getAt(to);
+                    for (PathFinder.Algorithm algorithm : PathFinder.Algorithm.values()) {
+                        String message = generator.getName() + " " + algorithm + " floors " + floors
+                                + " " + from + " to " + to;
+                        int[] path = finder.findPath(algorithm, from, to);
+                        // A perfect maze has one route, which the field counts in moves and the finder in steps
+                        int expected = moves == DistanceField.UNREACHABLE ? PathFinder.UNREACHABLE
+                                : moves + stairLinks(grid, SIZE, path);
+                        assertEquals(expected, finder.distance(algorithm, from, to), message);
+                        checkPath(grid, SIZE, path, from, to, expected, message);
+                    }
+                }
+                model.release();
+            }
+        }
+    }
+
+    @Test
+    void sameSearchGivesSamePathTwice() {
+        MazeModel model = new MazeModel(SIZE, MazeModel.SINGLE_PLAYER, 3, MazeGenerators.DEFAULT);
+        MazeGrid grid = model.getGrid();
+        PathFinder finder = new PathFinder(grid);
+        int from = grid.index(1, 1);
+        int to = grid.index(model.getExitX(), model.getExitY());
+        for (PathFinder.Algorithm algorithm : PathFinder.Algorithm.values()) {
+            int[] first = finder.findPath(algorithm, from, to);
+            finder.findPath(algorithm, to, from);
+            assertArrayEquals(first, finder.findPath(algorithm, from, to), algorithm.toString());
+        }
+    }
+
+    private static int randomCell(MazeGrid grid, SplittableRandom random, int query) {
+        // Most queries join two rooms; the rest may start or end on a wall
+        return query % 3 == 0 ? random.nextInt(grid.getCellCount())
+                : grid.roomToCell(random.nextInt(grid.getRoomCount()));
+    }
+
+    /**
+     * Checks that a path joins the two cells in the given number of steps, each to a neighbour
+     * or across a staircase.
+     */
+    private static void checkPath(MazeGrid grid, int floorRows, int[] path, int from, int to, int steps, String message) {
+        if (steps == PathFinder.UNREACHABLE) {
+            assertNull(path, message);
+            return;
+        }
+        assertEquals(steps + 1, path.length, message);
+        assertEquals(from, path[0], message);
+        assertEquals(to, path[steps], message);
+        for (int i = 1; i < path.length; i++) {
+            assertTrue(grid.getAt(path[i]) != MazeGrid.WALL, message);
+            int gap = Math.abs(path[i] - path[i - 1]);
+            assertTrue(gap == 1 || gap == grid.getCols() || isStairLink(grid, floorRows, path[i - 1], path[i]), message);
+        }
+    }
+
+    private static int stairLinks(MazeGrid grid, int floorRows, int[] path) {
+        int links = 0;
+        for (int i = 1; i < path.length; i++) {
+            if (isStairLink(grid, floorRows, path[i - 1], path[i])) links++;
+        }
+        return links;
+    }
+
+    private static boolean isStairLink(MazeGrid grid, int floorRows, int a, int b) {
+        int type = grid.getAt(a);
+        return Math.abs(a - b) == floorRows * grid.getCols()
+                && (type == MazeGrid.STAIRS_UP || type == MazeGrid.STAIRS_DOWN);
+    }
+}